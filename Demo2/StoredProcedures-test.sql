@@ -60,9 +60,14 @@ CREATE PROCEDURE proc_create_order(
   OUT p_orderNumber INT
 )
 BEGIN
-  INSERT INTO Orders(restName, orderDate, orderTime, subtotalAmount, tipAmount, orderStatus)
-  VALUES (p_restName, CURDATE(), CURTIME(), 0.00, 0.00, 'In Progress');
+  -- Draw from the same sequence the backend reserves blocks from, never from AUTO_INCREMENT
+  UPDATE OrderNumberSequence
+     SET nextValue = LAST_INSERT_ID(GREATEST(nextValue, (SELECT COALESCE(MAX(orderNumber), 0) + 1 FROM Orders))) + 1
+   WHERE seqName = 'Orders';
   SET p_orderNumber = LAST_INSERT_ID();
+
+  INSERT INTO Orders(orderNumber, restName, orderDate, orderTime, subtotalAmount, tipAmount, orderStatus)
+  VALUES (p_orderNumber, p_restName, CURDATE(), CURTIME(), 0.00, 0.00, 'In Progress');
 END$$
 
 -- 4) Assign a driver: set new driver Busy, free any previous driver
@@ -311,9 +316,9 @@ END$$
 CREATE PROCEDURE proc_get_order_summary(IN p_orderNumber INT)
 BEGIN
   SELECT * FROM Orders WHERE orderNumber=p_orderNumber;
-  SELECT oi.itemID, mi.itemName, mi.itemPrice, oi.quantity, oi.lineSubtotal
-    FROM OrderToItems oi JOIN MenuItems mi ON mi.itemID=oi.itemID
-   WHERE oi.orderNumber=p_orderNumber;
+  SELECT itemID, itemName, itemPrice, quantity, lineSubtotal
+    FROM OrderToItems
+   WHERE orderNumber=p_orderNumber;
   SELECT a.* FROM OrderDeliveryAddress oda JOIN Address a ON a.addressID=oda.addressID
    WHERE oda.orderNumber=p_orderNumber;
 END$$
@@ -2,6 +2,7 @@
 SET FOREIGN_KEY_CHECKS=0;
 TRUNCATE TABLE OrderDeliveryAddress;
 TRUNCATE TABLE OrderToItems;
+TRUNCATE TABLE OrderIdempotency;
 TRUNCATE TABLE Orders;
 TRUNCATE TABLE RestaurantToMenu;
 TRUNCATE TABLE RestaurantToHours;
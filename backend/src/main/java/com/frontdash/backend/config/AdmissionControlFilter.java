@@ -0,0 +1,167 @@
+package com.frontdash.backend.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Adaptive admission control for /api/**. The number of requests allowed in flight follows an
+ * AIMD rule driven by observed latency: it creeps up while responses are fast and is cut back
+ * as soon as they slow down (typically because MySQL or the connection pool is saturated).
+ * Lower-priority traffic may only use part of the limit, so when the limit shrinks, admin
+ * dashboard reads and order listings are shed first and order creation and health checks keep getting through. Anything
+ * over the limit gets an immediate 503 instead of queueing on a Tomcat thread. Endpoints that
+ * legitimately run for seconds or minutes (bulk menu import, order export) are admitted against
+ * the limit but never feed its latency samples, so they cannot shrink it for everyone else.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    enum Priority {
+        CRITICAL(1.0),
+        NORMAL(0.8),
+        SHEDDABLE(0.5);
+
+        private final double share;
+
+        Priority(double share) {
+            this.share = share;
+        }
+    }
+
+    private final boolean enabled;
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyTargetNanos;
+    private final double backoffRatio;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private double limit;
+    private long lastDecreaseNanos;
+
+    public AdmissionControlFilter(
+            @Value("${frontdash.admission.enabled:true}") boolean enabled,
+            @Value("${frontdash.admission.initial-limit:20}") int initialLimit,
+            @Value("${frontdash.admission.min-limit:4}") int minLimit,
+            @Value("${frontdash.admission.max-limit:200}") int maxLimit,
+            @Value("${frontdash.admission.latency-target-ms:250}") long latencyTargetMillis,
+            @Value("${frontdash.admission.backoff-ratio:0.9}") double backoffRatio) {
+        this.enabled = enabled;
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.limit = Math.min(this.maxLimit, Math.max(this.minLimit, initialLimit));
+        this.latencyTargetNanos = TimeUnit.MILLISECONDS.toNanos(latencyTargetMillis);
+        this.backoffRatio = backoffRatio;
+        this.lastDecreaseNanos = System.nanoTime();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled
+                || HttpMethod.OPTIONS.matches(request.getMethod())
+                || !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Priority priority = classify(request);
+        if (!tryAcquire(priority)) {
+            reject(response);
+            return;
+        }
+        boolean sampled = !isLongRunning(request);
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            chain.doFilter(request, response);
+            failed = response.getStatus() >= 500;
+        } finally {
+            inFlight.decrementAndGet();
+            if (sampled) {
+                onSample(System.nanoTime() - start, failed);
+            }
+        }
+    }
+
+    /**
+     * Requests whose duration says nothing about server health. The import holds its slot while it
+     * runs; the export hands off to an async stream and frees its slot at once, so its running
+     * count is capped by OrderExporter instead.
+     */
+    static boolean isLongRunning(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        return path.equals("/api/orders/export") || path.equals("/api/restaurant/menu-items/import");
+    }
+
+    static Priority classify(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        String method = request.getMethod();
+        if (path.equals("/api/health")) {
+            return Priority.CRITICAL;
+        }
+        if (path.equals("/api/orders") || path.equals("/api/orders/quote")) {
+            return HttpMethod.POST.matches(method) ? Priority.CRITICAL : Priority.SHEDDABLE;
+        }
+        if (path.equals("/api/orders/export")) {
+            return Priority.SHEDDABLE;
+        }
+        // Every admin dashboard read (directory, staff, drivers, stats) yields to customer traffic
+        if (path.startsWith("/api/admin/") && HttpMethod.GET.matches(method)) {
+            return Priority.SHEDDABLE;
+        }
+        return Priority.NORMAL;
+    }
+
+    private boolean tryAcquire(Priority priority) {
+        int allowed = Math.max(1, (int) (currentLimit() * priority.share));
+        while (true) {
+            int current = inFlight.get();
+            if (current >= allowed) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private synchronized double currentLimit() {
+        return limit;
+    }
+
+    private synchronized void onSample(long latencyNanos, boolean failed) {
+        long now = System.nanoTime();
+        if (failed || latencyNanos > latencyTargetNanos) {
+            // At most one multiplicative cut per target interval, so a burst of slow responses
+            // that were all admitted under the old limit does not collapse it to the floor
+            if (now - lastDecreaseNanos >= latencyTargetNanos) {
+                limit = Math.max(minLimit, limit * backoffRatio);
+                lastDecreaseNanos = now;
+            }
+        } else {
+            limit = Math.min(maxLimit, limit + 1.0 / limit);
+        }
+    }
+
+    private void reject(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"message\":\"Server is busy, please retry shortly\"}");
+    }
+}
@@ -1,12 +1,18 @@
 package com.frontdash.backend.controller;
 
 import com.frontdash.backend.dto.*;
+import com.frontdash.backend.repository.FrontdashRepository.DriverListing;
+import com.frontdash.backend.repository.FrontdashRepository.StaffListing;
 import com.frontdash.backend.service.FrontdashService;
+import com.frontdash.backend.service.RestaurantDirectory;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
 @RestController
@@ -20,10 +26,23 @@ public class AdminController {
     }
 
     @GetMapping("/restaurants")
-  public List<Map<String, Object>> listRestaurants(
+  public ResponseEntity<byte[]> listRestaurants(
           @RequestParam(name = "includePending", defaultValue = "0") int includePending,
-          @RequestParam(name = "includeInactive", defaultValue = "0") int includeInactive) {
-    return service.listRestaurants(includePending == 1, includeInactive == 1);
+          @RequestParam(name = "includeInactive", defaultValue = "0") int includeInactive,
+          @RequestParam(name = "city", required = false) String city,
+          @RequestParam(name = "state", required = false) String state,
+          @RequestParam(name = "zip", required = false) String zip,
+          @RequestParam(name = "fields", required = false) String fields,
+          @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+    RestaurantDirectory.Snapshot snapshot =
+            service.getRestaurantDirectory(includePending == 1, includeInactive == 1, city, state, zip, fields);
+    ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+    if (acceptsGzip(acceptEncoding)) {
+      return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(snapshot.gzip());
+    }
+    return response.body(snapshot.json());
   }
 
   @GetMapping("/restaurants/pending")
@@ -43,8 +62,18 @@ public class AdminController {
         return ResponseEntity.ok(Map.of("message", "Withdrawal decision saved"));
     }
 
+    @GetMapping("/stats/menu-cache")
+    public Map<String, Object> menuCacheStats() {
+        return service.getMenuCacheStats();
+    }
+
+    @GetMapping("/stats/single-flight")
+    public List<Map<String, Object>> singleFlightStats() {
+        return service.getSingleFlightStats();
+    }
+
     @GetMapping("/staff")
-    public List<Map<String, Object>> listStaff() {
+    public List<StaffListing> listStaff() {
         return service.listStaff();
     }
 
@@ -61,7 +90,7 @@ public class AdminController {
     }
 
     @GetMapping("/drivers")
-    public List<Map<String, Object>> listDrivers() {
+    public List<DriverListing> listDrivers() {
         return service.listDrivers();
     }
 
@@ -76,4 +105,22 @@ public class AdminController {
         service.setDriverStatus(request.getDriverName(), request.getStatus());
         return ResponseEntity.ok(Map.of("message", "Driver status updated"));
     }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> handleBadRequest(IllegalArgumentException ex) {
+        return ResponseEntity.badRequest().body(Map.of("message", ex.getMessage()));
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.toLowerCase(Locale.ROOT).split(",")) {
+            String[] parts = coding.split(";");
+            if (parts[0].strip().equals("gzip")) {
+                return parts.length == 1 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
 }
@@ -0,0 +1,43 @@
+package com.frontdash.backend.controller;
+
+import com.frontdash.backend.service.CatalogSearchIndex;
+import com.frontdash.backend.service.FrontdashService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api")
+public class CatalogController {
+
+    private final FrontdashService service;
+    private final ZoneId zone;
+
+    public CatalogController(FrontdashService service,
+                             @Value("${frontdash.hours.time-zone:}") String timeZone) {
+        this.service = service;
+        this.zone = timeZone.isBlank() ? ZoneId.systemDefault() : ZoneId.of(timeZone);
+    }
+
+    // Restaurant hours are wall-clock times, so "at" is a local date-time in the restaurants' zone
+    @GetMapping("/restaurants/open")
+    public Map<String, Object> listOpenRestaurants(
+            @RequestParam(name = "at", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
+        LocalDateTime when = at == null ? LocalDateTime.now(zone) : at;
+        return Map.of("at", when.withSecond(0).withNano(0).toString(), "restaurants", service.listOpenRestaurants(when));
+    }
+
+    @GetMapping("/search")
+    public List<CatalogSearchIndex.Hit> search(@RequestParam("q") String query,
+                                               @RequestParam(name = "limit", defaultValue = "20") int limit) {
+        return service.search(query, limit);
+    }
+}
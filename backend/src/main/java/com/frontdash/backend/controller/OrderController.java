@@ -4,11 +4,29 @@ import com.frontdash.backend.dto.AssignDriverRequest;
 import com.frontdash.backend.dto.CreateOrderRequest;
 import com.frontdash.backend.dto.CreateOrderResponse;
 import com.frontdash.backend.dto.DeliveryRequest;
+import com.frontdash.backend.dto.OrderQuoteRequest;
+import com.frontdash.backend.dto.OrderQuoteResponse;
+import com.frontdash.backend.dto.OrderSummariesRequest;
+import com.frontdash.backend.repository.FrontdashRepository.OrderFilter;
+import com.frontdash.backend.repository.FrontdashRepository.OrderPage;
+import com.frontdash.backend.service.ExportBusyException;
 import com.frontdash.backend.service.FrontdashService;
+import com.frontdash.backend.service.KitchenCapacityExceededException;
+import com.frontdash.backend.service.MenuChangedException;
+import com.frontdash.backend.service.OrderExporter;
+import com.frontdash.backend.service.OrderIngestionException;
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 
@@ -16,6 +34,8 @@ import java.util.Map;
 @RequestMapping("/api/orders")
 public class OrderController {
 
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final FrontdashService service;
 
     public OrderController(FrontdashService service) {
@@ -23,8 +43,15 @@ public class OrderController {
     }
 
     @PostMapping
-    public ResponseEntity<CreateOrderResponse> createOrder(@Valid @RequestBody CreateOrderRequest request) {
-        return ResponseEntity.ok(service.createOrder(request));
+    public ResponseEntity<CreateOrderResponse> createOrder(
+            @RequestHeader(name = "Idempotency-Key", required = false) String idempotencyKey,
+            @Valid @RequestBody CreateOrderRequest request) {
+        return ResponseEntity.ok(service.createOrder(request, idempotencyKey));
+    }
+
+    @PostMapping("/quote")
+    public ResponseEntity<OrderQuoteResponse> quoteOrder(@Valid @RequestBody OrderQuoteRequest request) {
+        return ResponseEntity.ok(service.quoteOrder(request));
     }
 
     @PostMapping("/{orderNumber}/assign-driver")
@@ -44,17 +71,76 @@ public class OrderController {
     }
 
     @GetMapping
-    public List<Map<String, Object>> listOrders() {
-        return service.listOrders();
+    public ResponseEntity<List<?>> listOrders(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String restName,
+            @RequestParam(required = false) String driverName,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Integer cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String fields) {
+        OrderPage page = service.listOrders(new OrderFilter(status, restName, driverName, from, to), cursor, limit, fields);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.nextCursor().toString());
+        }
+        return response.body(page.orders());
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @RequestParam(required = false) String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        OrderExporter.Export export = service.exportOrders(format, from, to);
+        String filename = export.format() == OrderExporter.Format.CSV ? "orders.csv" : "orders.ndjson";
+        return ResponseEntity.ok()
+                .contentType(new MediaType(MediaType.parseMediaType(export.format().contentType()), StandardCharsets.UTF_8))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+                .body(export::writeTo);
     }
 
     @GetMapping("/{orderNumber}")
-    public Map<String, Object> getOrderSummary(@PathVariable int orderNumber) {
-        return service.getOrderSummary(orderNumber);
+    public Map<String, Object> getOrderSummary(@PathVariable int orderNumber,
+                                               @RequestParam(required = false) String fields) {
+        return service.getOrderSummary(orderNumber, fields);
+    }
+
+    @PostMapping("/summaries")
+    public Map<Integer, Map<String, Object>> getOrderSummaries(@Valid @RequestBody OrderSummariesRequest request,
+                                                               @RequestParam(required = false) String fields) {
+        return service.getOrderSummaries(request.getOrderNumbers(), fields);
     }
 
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<Map<String, String>> handleBadRequest(IllegalArgumentException ex) {
         return ResponseEntity.badRequest().body(Map.of("message", ex.getMessage()));
     }
+
+    @ExceptionHandler(KitchenCapacityExceededException.class)
+    public ResponseEntity<Map<String, String>> handleKitchenFull(KitchenCapacityExceededException ex) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(Map.of("message", ex.getMessage()));
+    }
+
+    @ExceptionHandler(MenuChangedException.class)
+    public ResponseEntity<Map<String, String>> handleMenuChanged(MenuChangedException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("message", ex.getMessage()));
+    }
+
+    @ExceptionHandler(ExportBusyException.class)
+    public ResponseEntity<Map<String, String>> handleExportBusy(ExportBusyException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(Map.of("message", ex.getMessage()));
+    }
+
+    @ExceptionHandler(OrderIngestionException.class)
+    public ResponseEntity<Map<String, String>> handleIngestionBusy(OrderIngestionException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(Map.of("message", ex.getMessage()));
+    }
 }
@@ -1,14 +1,23 @@
 package com.frontdash.backend.controller;
 
 import com.frontdash.backend.dto.HoursUpdateRequest;
+import com.frontdash.backend.dto.KitchenCapacityRequest;
 import com.frontdash.backend.dto.MenuCreateRequest;
+import com.frontdash.backend.dto.MenuImportResponse;
 import com.frontdash.backend.dto.MenuUpdateRequest;
 import com.frontdash.backend.dto.RestaurantRegistrationRequest;
+import com.frontdash.backend.repository.FrontdashRepository.HoursEntry;
+import com.frontdash.backend.repository.FrontdashRepository.MenuEntry;
 import com.frontdash.backend.service.FrontdashService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -21,14 +30,31 @@ public class RestaurantController {
     this.service = service;
   }
 
+    // The version is read from the database before the data, so a concurrent edit can only make the ETag older
+    // than the body, and an edit made through any node changes it
     @GetMapping("/menu")
-    public java.util.List<java.util.Map<String, Object>> getMenu(@RequestParam("restName") String restName) {
-        return service.getMenu(restName);
+    public ResponseEntity<List<MenuEntry>> getMenu(@RequestParam("restName") String restName, WebRequest request) {
+        long version = service.getMenuVersion(restName);
+        String etag = etag("menu", version);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache()).body(service.getMenu(restName, version));
+    }
+
+    @GetMapping("/menus")
+    public Map<String, List<MenuEntry>> getMenus(@RequestParam("restName") List<String> restNames) {
+        return service.getMenus(restNames);
     }
 
     @GetMapping("/hours")
-    public java.util.List<java.util.Map<String, Object>> getHours(@RequestParam("restName") String restName) {
-        return service.getHours(restName);
+    public ResponseEntity<List<HoursEntry>> getHours(@RequestParam("restName") String restName, WebRequest request) {
+        long version = service.getHoursVersion(restName);
+        String etag = etag("hours", version);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache()).body(service.getHours(restName, version));
     }
 
   @PostMapping("/registration")
@@ -78,12 +104,30 @@ public class RestaurantController {
         return ResponseEntity.ok(Map.of("message", "Menu item created", "itemId", itemId));
     }
 
+    // Body is read as a stream (CSV with a header row, or one JSON object per line); bad rows come back in "errors"
+    @PostMapping(value = "/menu-items/import", consumes = {"text/csv", "application/x-ndjson", "application/jsonl"})
+    public MenuImportResponse importMenu(@RequestParam("restName") String restName, HttpServletRequest request)
+            throws IOException {
+        return service.importMenu(restName, request.getContentType(), request.getInputStream());
+    }
+
     @DeleteMapping("/menu-item")
     public ResponseEntity<Map<String, String>> deleteMenuItem(@RequestParam("restName") String restName, @RequestParam("itemId") int itemId) {
         service.deleteMenuItem(restName, itemId);
         return ResponseEntity.ok(Map.of("message", "Menu item deleted"));
     }
 
+    @GetMapping("/capacity")
+    public Map<String, Object> getCapacity(@RequestParam("restName") String restName) {
+        return service.getKitchenCapacity(restName);
+    }
+
+    @PutMapping("/capacity")
+    public ResponseEntity<Map<String, String>> setCapacity(@Valid @RequestBody KitchenCapacityRequest request) {
+        service.setKitchenCapacity(request.getRestName(), request.getMaxInProgressOrders());
+        return ResponseEntity.ok(Map.of("message", "Kitchen capacity updated"));
+    }
+
     @PutMapping("/hours")
     public ResponseEntity<Map<String, String>> updateHours(@Valid @RequestBody HoursUpdateRequest request) {
         service.updateHours(
@@ -95,4 +139,13 @@ public class RestaurantController {
         );
         return ResponseEntity.ok(Map.of("message", "Hours updated"));
     }
+
+    private static String etag(String kind, long version) {
+        return "\"" + kind + "-" + version + "\"";
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> handleBadRequest(IllegalArgumentException ex) {
+        return ResponseEntity.badRequest().body(Map.of("message", ex.getMessage()));
+    }
 }
@@ -0,0 +1,28 @@
+package com.frontdash.backend.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+
+public class KitchenCapacityRequest {
+    @NotBlank
+    private String restName;
+
+    @Min(0)
+    private Integer maxInProgressOrders; // null falls back to the default, 0 means unlimited
+
+    public String getRestName() {
+        return restName;
+    }
+
+    public void setRestName(String restName) {
+        this.restName = restName;
+    }
+
+    public Integer getMaxInProgressOrders() {
+        return maxInProgressOrders;
+    }
+
+    public void setMaxInProgressOrders(Integer maxInProgressOrders) {
+        this.maxInProgressOrders = maxInProgressOrders;
+    }
+}
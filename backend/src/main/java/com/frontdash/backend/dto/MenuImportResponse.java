@@ -0,0 +1,57 @@
+package com.frontdash.backend.dto;
+
+import java.util.List;
+
+public class MenuImportResponse {
+    private final String restName;
+    private final int imported;
+    private final int failed;
+    private final List<RowError> errors;
+    private final boolean errorsTruncated;
+
+    public MenuImportResponse(String restName, int imported, int failed, List<RowError> errors, boolean errorsTruncated) {
+        this.restName = restName;
+        this.imported = imported;
+        this.failed = failed;
+        this.errors = errors;
+        this.errorsTruncated = errorsTruncated;
+    }
+
+    public String getRestName() {
+        return restName;
+    }
+
+    public int getImported() {
+        return imported;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public List<RowError> getErrors() {
+        return errors;
+    }
+
+    public boolean isErrorsTruncated() {
+        return errorsTruncated;
+    }
+
+    public static class RowError {
+        private final long line;
+        private final String message;
+
+        public RowError(long line, String message) {
+            this.line = line;
+            this.message = message;
+        }
+
+        public long getLine() {
+            return line;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+}
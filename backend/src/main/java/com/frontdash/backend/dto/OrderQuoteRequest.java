@@ -0,0 +1,26 @@
+package com.frontdash.backend.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import java.util.List;
+
+public class OrderQuoteRequest {
+    @NotBlank
+    private String restName;
+
+    @NotEmpty
+    @Valid
+    private List<CreateOrderRequest.OrderItem> items;
+
+    private Double tipAmount;
+
+    public String getRestName() { return restName; }
+    public void setRestName(String restName) { this.restName = restName; }
+
+    public List<CreateOrderRequest.OrderItem> getItems() { return items; }
+    public void setItems(List<CreateOrderRequest.OrderItem> items) { this.items = items; }
+
+    public Double getTipAmount() { return tipAmount; }
+    public void setTipAmount(Double tipAmount) { this.tipAmount = tipAmount; }
+}
@@ -0,0 +1,31 @@
+package com.frontdash.backend.dto;
+
+public class OrderQuoteResponse {
+    private final double subtotal;
+    private final double serviceCharge;
+    private final double tipAmount;
+    private final double grandTotal;
+
+    public OrderQuoteResponse(double subtotal, double serviceCharge, double tipAmount, double grandTotal) {
+        this.subtotal = subtotal;
+        this.serviceCharge = serviceCharge;
+        this.tipAmount = tipAmount;
+        this.grandTotal = grandTotal;
+    }
+
+    public double getSubtotal() {
+        return subtotal;
+    }
+
+    public double getServiceCharge() {
+        return serviceCharge;
+    }
+
+    public double getTipAmount() {
+        return tipAmount;
+    }
+
+    public double getGrandTotal() {
+        return grandTotal;
+    }
+}
@@ -0,0 +1,19 @@
+package com.frontdash.backend.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+public class OrderSummariesRequest {
+    @NotEmpty
+    private List<@NotNull Integer> orderNumbers;
+
+    public List<Integer> getOrderNumbers() {
+        return orderNumbers;
+    }
+
+    public void setOrderNumbers(List<Integer> orderNumbers) {
+        this.orderNumbers = orderNumbers;
+    }
+}
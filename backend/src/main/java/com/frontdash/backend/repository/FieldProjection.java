@@ -0,0 +1,150 @@
+package com.frontdash.backend.repository;
+
+import org.springframework.jdbc.support.JdbcUtils;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A validated {@code fields=} selection compiled into a SQL select list, so a sparse request
+ * only reads and sends the columns it asked for. Fields are checked against a per-endpoint
+ * {@link Whitelist}; each distinct field set is compiled once and reused. A whitelist entry
+ * without a column names a nested group (e.g. an order's items) that the query joins only
+ * when the group is requested.
+ */
+public final class FieldProjection {
+
+    private final String key;
+    private final List<String> fields;
+    private final List<String> columnFields;
+    private final String selectList;
+    private final Set<String> included;
+
+    private FieldProjection(String key, List<String> fields, List<String> columnFields, String selectList) {
+        this.key = key;
+        this.fields = List.copyOf(fields);
+        this.columnFields = List.copyOf(columnFields);
+        this.selectList = selectList;
+        this.included = Set.copyOf(fields);
+    }
+
+    /** Canonical form of the field set, in whitelist order; equal selections share a key. */
+    public String key() {
+        return key;
+    }
+
+    public List<String> fields() {
+        return fields;
+    }
+
+    public boolean includes(String field) {
+        return included.contains(field);
+    }
+
+    /** Comma-separated column expressions for the requested column fields, in {@link #fields()} order. */
+    public String selectList() {
+        return selectList;
+    }
+
+    public int columnCount() {
+        return columnFields.size();
+    }
+
+    /** Reads this projection's columns starting at {@code first} into a row keyed by field name. */
+    public Map<String, Object> map(ResultSet rs, int first) throws SQLException {
+        Map<String, Object> row = new LinkedHashMap<>();
+        for (int i = 0; i < columnFields.size(); i++) {
+            row.put(columnFields.get(i), JdbcUtils.getResultSetValue(rs, first + i));
+        }
+        return row;
+    }
+
+    @Override
+    public String toString() {
+        return key;
+    }
+
+    public static final class Whitelist {
+        private static final int MAX_CACHED = 256;
+
+        private final Map<String, String> columnsByField;
+        private final Set<String> required;
+        private final Map<String, FieldProjection> compiled = new ConcurrentHashMap<>();
+        private final FieldProjection all;
+
+        /**
+         * @param columnsByField field name to column expression (null for a nested group), in output order
+         * @param required       fields always selected, whether or not they were asked for
+         */
+        public Whitelist(Map<String, String> columnsByField, Set<String> required) {
+            this.columnsByField = new LinkedHashMap<>(columnsByField);
+            this.required = Set.copyOf(required);
+            this.all = build(this.columnsByField.keySet());
+        }
+
+        public FieldProjection all() {
+            return all;
+        }
+
+        /** Compiles a comma-separated field list; null or blank means every field. */
+        public FieldProjection compile(String fieldsParam) {
+            if (fieldsParam == null || fieldsParam.isBlank()) {
+                return all;
+            }
+            Set<String> requested = new HashSet<>(required);
+            for (String field : fieldsParam.split(",")) {
+                String name = field.strip();
+                if (name.isEmpty()) {
+                    continue;
+                }
+                if (!columnsByField.containsKey(name)) {
+                    throw new IllegalArgumentException("Unknown field '" + name + "'; allowed fields: "
+                            + String.join(",", columnsByField.keySet()));
+                }
+                requested.add(name);
+            }
+            List<String> ordered = new ArrayList<>(requested.size());
+            for (String name : columnsByField.keySet()) {
+                if (requested.contains(name)) {
+                    ordered.add(name);
+                }
+            }
+            String key = String.join(",", ordered);
+            FieldProjection cached = compiled.get(key);
+            if (cached != null) {
+                return cached;
+            }
+            FieldProjection projection = build(ordered);
+            if (compiled.size() < MAX_CACHED) {
+                compiled.putIfAbsent(key, projection);
+            }
+            return projection;
+        }
+
+        private FieldProjection build(Iterable<String> names) {
+            List<String> fields = new ArrayList<>();
+            List<String> columnFields = new ArrayList<>();
+            StringBuilder select = new StringBuilder();
+            for (String name : names) {
+                fields.add(name);
+                String column = columnsByField.get(name);
+                if (column == null) {
+                    continue;
+                }
+                if (!columnFields.isEmpty()) {
+                    select.append(", ");
+                }
+                select.append(column);
+                columnFields.add(name);
+            }
+            return new FieldProjection(String.join(",", fields), fields, columnFields, select.toString());
+        }
+    }
+}
@@ -1,73 +1,97 @@
 package com.frontdash.backend.repository;
 
-import org.springframework.jdbc.core.ColumnMapRowMapper;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
 import org.springframework.jdbc.core.JdbcTemplate;
-import org.springframework.jdbc.core.SqlOutParameter;
-import org.springframework.jdbc.core.SqlParameter;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.simple.SimpleJdbcCall;
 import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.JdbcUtils;
 import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.sql.Connection;
 import java.sql.Date;
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.sql.Time;
 import java.sql.Statement;
-import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.function.ToIntFunction;
 
 @Repository
 public class FrontdashRepository {
 
+    // fields= whitelists: field name -> column expression, in output order (null = nested group)
+    public static final FieldProjection.Whitelist ORDER_LIST_FIELDS = new FieldProjection.Whitelist(
+            fieldColumns("orderNumber", "orderNumber", "restName", "restName", "driverName", "driverName",
+                    "orderStatus", "orderStatus", "orderDate", "orderDate", "orderTime", "orderTime",
+                    "deliveryDate", "deliveryDate", "deliveryTime", "deliveryTime", "grandTotal", "grandTotal"),
+            Set.of("orderNumber"));
+    public static final FieldProjection.Whitelist ORDER_SUMMARY_FIELDS = new FieldProjection.Whitelist(
+            fieldColumns("orderNumber", "o.orderNumber", "restName", "o.restName", "driverName", "o.driverName",
+                    "orderDate", "o.orderDate", "orderTime", "o.orderTime", "subtotalAmount", "o.subtotalAmount",
+                    "serviceCharge", "o.serviceCharge", "tipAmount", "o.tipAmount", "grandTotal", "o.grandTotal",
+                    "orderStatus", "o.orderStatus", "deliveryDate", "o.deliveryDate", "deliveryTime", "o.deliveryTime",
+                    "items", null, "address", null),
+            Set.of("orderNumber"));
+    public static final FieldProjection.Whitelist RESTAURANT_LIST_FIELDS = new FieldProjection.Whitelist(
+            fieldColumns("restName", "r.restName", "isActive", "r.isActive", "approvalByAdminStatus", "r.approvalByAdminStatus",
+                    "pendingWithdraw", "r.pendingWithdraw", "contactName", "r.contactName",
+                    "contactEmail", "r.contactEmail", "contactPhone", "r.contactPhone"),
+            Set.of("restName"));
+
     private final JdbcTemplate jdbcTemplate;
-    private final SimpleJdbcCall createOrderCall;
     private final SimpleJdbcCall listRestaurantsCall;
     private final SimpleJdbcCall listStaffCall;
     private final SimpleJdbcCall listDriversCall;
-    private final SimpleJdbcCall listOrdersCall;
 
     public FrontdashRepository(JdbcTemplate jdbcTemplate) {
         this.jdbcTemplate = jdbcTemplate;
-        this.createOrderCall = new SimpleJdbcCall(jdbcTemplate)
-                .withProcedureName("proc_create_order")
-                .withoutProcedureColumnMetaDataAccess()
-                .declareParameters(
-                        new SqlParameter("p_restName", Types.VARCHAR),
-                        new SqlOutParameter("p_orderNumber", Types.INTEGER)
-                );
         this.listRestaurantsCall = new SimpleJdbcCall(jdbcTemplate)
                 .withProcedureName("proc_list_restaurants")
-                .returningResultSet("rs", new ColumnMapRowMapper());
+                .returningResultSet("rs", (RowMapper<RestaurantListing>) (rs, rowNum) -> mapRestaurantListing(rs));
         this.listStaffCall = new SimpleJdbcCall(jdbcTemplate)
                 .withProcedureName("proc_list_staff")
-                .returningResultSet("rs", new ColumnMapRowMapper());
+                .returningResultSet("rs", (RowMapper<StaffListing>) (rs, rowNum) ->
+                        new StaffListing(rs.getString(1), rs.getString(2), rs.getString(3), rs.getString(4)));
         this.listDriversCall = new SimpleJdbcCall(jdbcTemplate)
                 .withProcedureName("proc_list_drivers")
-                .returningResultSet("rs", new ColumnMapRowMapper());
-        this.listOrdersCall = new SimpleJdbcCall(jdbcTemplate)
-                .withProcedureName("proc_list_orders")
-                .returningResultSet("rs", new ColumnMapRowMapper());
+                .returningResultSet("rs", (RowMapper<DriverListing>) (rs, rowNum) ->
+                        new DriverListing(rs.getString(1), rs.getString(2), rs.getString(3)));
     }
 
-    public int createAddress(String street1, String street2, String city, String state, String zip) {
-        KeyHolder kh = new GeneratedKeyHolder();
-        jdbcTemplate.update(conn -> {
-            PreparedStatement ps = conn.prepareStatement(
-                    "INSERT INTO Address(streetAddress1, streetAddress2, city, state, zip) VALUES (?,?,?,?,?)",
-                    Statement.RETURN_GENERATED_KEYS
-            );
-            ps.setString(1, street1);
-            ps.setString(2, street2);
-            ps.setString(3, city);
-            ps.setString(4, state);
-            ps.setString(5, zip);
-            return ps;
-        }, kh);
-        Number key = kh.getKey();
-        return key == null ? 0 : key.intValue();
+    public int internAddress(String addressHash, String street1, String street2, String city, String state, String zip) {
+        // A repeat hash hands back the existing row's id through LAST_INSERT_ID instead of adding a row
+        return jdbcTemplate.execute((Connection conn) -> {
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "INSERT INTO Address(streetAddress1, streetAddress2, city, state, zip, addressHash) VALUES (?,?,?,?,?,?) " +
+                            "ON DUPLICATE KEY UPDATE addressID = LAST_INSERT_ID(addressID)")) {
+                ps.setString(1, street1);
+                ps.setString(2, street2);
+                ps.setString(3, city);
+                ps.setString(4, state);
+                ps.setString(5, zip);
+                ps.setString(6, addressHash);
+                ps.executeUpdate();
+            }
+            try (Statement st = conn.createStatement(); ResultSet rs = st.executeQuery("SELECT LAST_INSERT_ID()")) {
+                rs.next();
+                return rs.getInt(1);
+            }
+        });
     }
 
     public void requestRestaurantRegistration(String restName, int addressId, String contactName, String contactEmail, String contactPhone) {
@@ -87,12 +111,84 @@ public class FrontdashRepository {
         jdbcTemplate.update("CALL proc_admin_set_withdrawal(?,?)", restName, decision);
     }
 
-    public List<Map<String, Object>> listRestaurants(boolean includePending, boolean includeInactive) {
+    public List<RestaurantListing> listRestaurants(boolean includePending, boolean includeInactive) {
         Map<String, Object> in = new HashMap<>();
         in.put("p_includePending", includePending ? 1 : 0);
         in.put("p_includeInactive", includeInactive ? 1 : 0);
         Map<String, Object> out = listRestaurantsCall.execute(in);
-        return (List<Map<String, Object>>) out.get("rs");
+        return (List<RestaurantListing>) out.get("rs");
+    }
+
+    // Same rows as proc_list_restaurants plus the address zip, narrowed by whichever location filters are given
+    public List<LocatedRestaurant> listRestaurantsByLocation(boolean includePending, boolean includeInactive,
+                                                             String city, String state, String zip) {
+        StringBuilder sql = new StringBuilder(
+                "SELECT r.restName, r.isActive, r.approvalByAdminStatus, r.pendingWithdraw, " +
+                        "r.contactName, r.contactEmail, r.contactPhone, a.zip " +
+                        "FROM Address a JOIN Restaurant r ON r.addressID = a.addressID");
+        List<Object> args = appendListingFilter(sql, includePending, includeInactive, city, state, zip);
+        return jdbcTemplate.query(sql.toString(),
+                (rs, rowNum) -> new LocatedRestaurant(mapRestaurantListing(rs), rs.getString(8)), args.toArray());
+    }
+
+    // Sparse variant of the listing above: only the projected Restaurant columns are read
+    public List<Map<String, Object>> listRestaurants(boolean includePending, boolean includeInactive, String city,
+                                                     String state, String zip, FieldProjection projection) {
+        StringBuilder sql = new StringBuilder("SELECT " + projection.selectList() + " FROM Restaurant r");
+        if (city != null || state != null || zip != null) {
+            sql.append(" JOIN Address a ON a.addressID = r.addressID");
+        }
+        List<Object> args = appendListingFilter(sql, includePending, includeInactive, city, state, zip);
+        return jdbcTemplate.query(sql.toString(), (rs, rowNum) -> projection.map(rs, 1), args.toArray());
+    }
+
+    // WHERE and ORDER BY shared by both restaurant listings; Address must be joined as "a" when a location is given
+    private static List<Object> appendListingFilter(StringBuilder sql, boolean includePending, boolean includeInactive,
+                                                    String city, String state, String zip) {
+        sql.append(" WHERE r.approvalByAdminStatus = 'Approved'");
+        List<Object> args = new ArrayList<>();
+        if (!includeInactive) {
+            sql.append(" AND r.isActive = 'Y'");
+        }
+        if (!includePending) {
+            sql.append(" AND r.pendingWithdraw = 'N'");
+        }
+        if (zip != null) {
+            sql.append(" AND a.zip = ?");
+            args.add(zip);
+        }
+        if (city != null) {
+            sql.append(" AND a.city = ?");
+            args.add(city);
+        }
+        if (state != null) {
+            sql.append(" AND a.state = ?");
+            args.add(state);
+        }
+        sql.append(" ORDER BY r.restName");
+        return args;
+    }
+
+    public boolean setKitchenCapacity(String restName, Integer capacity) {
+        return jdbcTemplate.update("UPDATE Restaurant SET kitchenCapacity=? WHERE restName=?", capacity, restName) > 0;
+    }
+
+    public Map<String, Integer> getKitchenCapacities() {
+        Map<String, Integer> result = new HashMap<>();
+        jdbcTemplate.query("SELECT restName, kitchenCapacity FROM Restaurant WHERE kitchenCapacity IS NOT NULL",
+                rs -> {
+                    result.put(rs.getString(1), rs.getInt(2));
+                });
+        return result;
+    }
+
+    public Map<String, Integer> countInProgressOrdersByRestaurant() {
+        Map<String, Integer> result = new HashMap<>();
+        jdbcTemplate.query("SELECT restName, COUNT(*) FROM Orders WHERE orderStatus='In Progress' GROUP BY restName",
+                rs -> {
+                    result.put(rs.getString(1), rs.getInt(2));
+                });
+        return result;
     }
 
     public List<Map<String, Object>> listPendingRegistrations() {
@@ -109,9 +205,9 @@ public class FrontdashRepository {
         jdbcTemplate.update("CALL proc_set_staff_status(?,?)", username, status);
     }
 
-    public List<Map<String, Object>> listStaff() {
+    public List<StaffListing> listStaff() {
         Map<String, Object> out = listStaffCall.execute();
-        return (List<Map<String, Object>>) out.get("rs");
+        return (List<StaffListing>) out.get("rs");
     }
 
     public void createDriver(String driverName) {
@@ -122,76 +218,161 @@ public class FrontdashRepository {
         jdbcTemplate.update("CALL proc_set_driver_status(?,?)", driverName, status);
     }
 
-    public List<Map<String, Object>> listDrivers() {
+    public List<DriverListing> listDrivers() {
         Map<String, Object> out = listDriversCall.execute();
-        return (List<Map<String, Object>>) out.get("rs");
+        return (List<DriverListing>) out.get("rs");
     }
 
-    public int createOrder(String restName) {
-        Map<String, Object> in = new HashMap<>();
-        in.put("p_restName", restName);
-        Map<String, Object> out = createOrderCall.execute(in);
-        Number orderNumber = (Number) out.get("p_orderNumber");
-        return orderNumber == null ? 0 : orderNumber.intValue();
+    public int reserveOrderNumbers(int blockSize) {
+        // Claims [start, start + blockSize) atomically; GREATEST keeps the range above any row written outside the sequence
+        return jdbcTemplate.execute((Connection conn) -> {
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "UPDATE OrderNumberSequence " +
+                            "SET nextValue = LAST_INSERT_ID(GREATEST(nextValue, (SELECT COALESCE(MAX(orderNumber), 0) + 1 FROM Orders))) + ? " +
+                            "WHERE seqName = 'Orders'")) {
+                ps.setInt(1, blockSize);
+                if (ps.executeUpdate() != 1) {
+                    throw new IllegalStateException("OrderNumberSequence row 'Orders' is missing");
+                }
+            }
+            try (Statement st = conn.createStatement(); ResultSet rs = st.executeQuery("SELECT LAST_INSERT_ID()")) {
+                rs.next();
+                return rs.getInt(1);
+            }
+        });
     }
 
-    public int createOrderWithTotals(String restName, double subtotal, double tipAmount) {
-        KeyHolder kh = new GeneratedKeyHolder();
-        jdbcTemplate.update(conn -> {
-            PreparedStatement ps = conn.prepareStatement(
-                    "INSERT INTO Orders(restName, orderDate, orderTime, subtotalAmount, tipAmount, orderStatus) " +
-                            "VALUES (?,?,?,?,?,?)",
-                    Statement.RETURN_GENERATED_KEYS
-            );
-            ps.setString(1, restName);
-            ps.setDate(2, Date.valueOf(java.time.LocalDate.now()));
-            ps.setTime(3, Time.valueOf(java.time.LocalTime.now()));
-            ps.setDouble(4, subtotal);
-            ps.setDouble(5, tipAmount);
-            ps.setString(6, "In Progress");
-            return ps;
-        }, kh);
-        Number key = kh.getKey();
-        return key == null ? 0 : key.intValue();
+    public void createOrders(List<OrderHeader> headers) {
+        Date orderDate = Date.valueOf(java.time.LocalDate.now());
+        Time orderTime = Time.valueOf(java.time.LocalTime.now());
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO Orders(orderNumber, restName, orderDate, orderTime, subtotalAmount, serviceCharge, tipAmount, grandTotal, orderStatus) " +
+                        "VALUES (?,?,?,?,?,?,?,?,?)",
+                headers,
+                headers.size(),
+                (ps, header) -> {
+                    ps.setInt(1, header.orderNumber());
+                    ps.setString(2, header.restName());
+                    ps.setDate(3, orderDate);
+                    ps.setTime(4, orderTime);
+                    ps.setBigDecimal(5, BigDecimal.valueOf(header.subtotalCents(), 2));
+                    ps.setBigDecimal(6, BigDecimal.valueOf(header.serviceChargeCents(), 2));
+                    ps.setBigDecimal(7, BigDecimal.valueOf(header.tipCents(), 2));
+                    ps.setBigDecimal(8, BigDecimal.valueOf(header.grandTotalCents(), 2));
+                    ps.setString(9, "In Progress");
+                }
+        );
     }
 
-    public Map<Integer, Map<String, Object>> getMenuItemsForRestaurant(String restName, List<Integer> itemIds) {
-        if (itemIds == null || itemIds.isEmpty()) {
-            return Map.of();
-        }
-        String placeholders = itemIds.stream().map(id -> "?").collect(Collectors.joining(","));
-        List<Object> params = itemIds.stream().map(id -> (Object) id).collect(Collectors.toList());
-        params.add(0, restName);
-        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
-                "SELECT mi.itemID, mi.itemName, mi.itemPrice " +
+    public List<MenuItemPrice> getMenuPrices(String restName) {
+        return jdbcTemplate.query(
+                "SELECT mi.itemID, mi.itemName, mi.itemPrice * 100, mi.isAvailable " +
                         "FROM RestaurantToMenu rtm JOIN MenuItems mi ON mi.itemID = rtm.itemID " +
-                        "WHERE rtm.restName = ? AND mi.itemID IN (" + placeholders + ")",
-                params.toArray()
+                        "WHERE rtm.restName = ? ORDER BY mi.itemID",
+                (rs, rowNum) -> new MenuItemPrice(rs.getInt(1), rs.getString(2), rs.getLong(3), "Y".equals(rs.getString(4))),
+                restName
         );
-        Map<Integer, Map<String, Object>> result = new HashMap<>();
-        for (Map<String, Object> row : rows) {
-            Number id = (Number) row.get("itemID");
-            if (id != null) {
-                result.put(id.intValue(), row);
-            }
-        }
-        return result;
     }
 
-    public void addOrderItem(int orderNumber, int itemId, int quantity, double lineSubtotal) {
-        jdbcTemplate.update(
-                "INSERT INTO OrderToItems(orderNumber, itemID, quantity, lineSubtotal) VALUES (?,?,?,?)",
-                orderNumber, itemId, quantity, lineSubtotal
+    // Read before the prices it guards: an edit landing in between leaves the version behind, never ahead
+    public Long getMenuVersion(String restName) {
+        return jdbcTemplate.query("SELECT menuVersion FROM Restaurant WHERE restName = ?",
+                rs -> rs.next() ? rs.getLong(1) : null, restName);
+    }
+
+    // Read before the hours it versions, for the same reason
+    public Long getHoursVersion(String restName) {
+        return jdbcTemplate.query("SELECT hoursVersion FROM Restaurant WHERE restName = ?",
+                rs -> rs.next() ? rs.getLong(1) : null, restName);
+    }
+
+    // Locking read for the order transaction: a menu write bumps the version first, so it waits for this order
+    public Long lockMenuVersion(String restName) {
+        return jdbcTemplate.query("SELECT menuVersion FROM Restaurant WHERE restName = ? FOR SHARE",
+                rs -> rs.next() ? rs.getLong(1) : null, restName);
+    }
+
+    // Every menu write calls this first in its transaction, so readers of menuVersion see the edit as one step
+    private void bumpMenuVersion(String restName) {
+        jdbcTemplate.update("UPDATE Restaurant SET menuVersion = menuVersion + 1 WHERE restName = ?", restName);
+    }
+
+    // Same for hours writes; the hours ETag is built from it, so edits made through any node retire it
+    private void bumpHoursVersion(String restName) {
+        jdbcTemplate.update("UPDATE Restaurant SET hoursVersion = hoursVersion + 1 WHERE restName = ?", restName);
+    }
+
+    public void addOrderItems(List<OrderLine> lines) {
+        // Sent as one JDBC batch; with rewriteBatchedStatements the driver turns it into a multi-row INSERT
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO OrderToItems(orderNumber, itemID, itemName, itemPrice, quantity, lineSubtotal) VALUES (?,?,?,?,?,?)",
+                lines,
+                lines.size(),
+                (ps, line) -> {
+                    ps.setInt(1, line.orderNumber());
+                    ps.setInt(2, line.itemId());
+                    ps.setString(3, line.itemName());
+                    ps.setBigDecimal(4, BigDecimal.valueOf(line.unitPriceCents(), 2));
+                    ps.setInt(5, line.quantity());
+                    ps.setBigDecimal(6, BigDecimal.valueOf(line.lineSubtotalCents(), 2));
+                }
         );
     }
 
-    public void setOrderDeliveryAddress(int orderNumber, int addressId, String contactName, String contactPhone) {
-        jdbcTemplate.update(
+    public void setOrderDeliveryAddresses(List<OrderDelivery> deliveries) {
+        jdbcTemplate.batchUpdate(
                 "INSERT INTO OrderDeliveryAddress(orderNumber, addressID, contactName, contactPhone) VALUES (?,?,?,?)",
-                orderNumber, addressId, contactName, contactPhone
+                deliveries,
+                deliveries.size(),
+                (ps, delivery) -> {
+                    ps.setInt(1, delivery.orderNumber());
+                    ps.setInt(2, delivery.addressId());
+                    ps.setString(3, delivery.contactName());
+                    ps.setString(4, delivery.contactPhone());
+                }
+        );
+    }
+
+    public void recordIdempotencyKeys(List<OrderIdempotency> records) {
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO OrderIdempotency(idempotencyKey, orderNumber, subtotalAmount, serviceCharge, tipAmount, grandTotal) " +
+                        "VALUES (?,?,?,?,?,?)",
+                records,
+                records.size(),
+                (ps, rec) -> {
+                    ps.setString(1, rec.idempotencyKey());
+                    ps.setInt(2, rec.orderNumber());
+                    ps.setBigDecimal(3, BigDecimal.valueOf(rec.subtotalCents(), 2));
+                    ps.setBigDecimal(4, BigDecimal.valueOf(rec.serviceChargeCents(), 2));
+                    ps.setBigDecimal(5, BigDecimal.valueOf(rec.tipCents(), 2));
+                    ps.setBigDecimal(6, BigDecimal.valueOf(rec.grandTotalCents(), 2));
+                }
+        );
+    }
+
+    public OrderIdempotency findIdempotentOrder(String idempotencyKey) {
+        return jdbcTemplate.query(
+                "SELECT idempotencyKey, orderNumber, subtotalAmount * 100, serviceCharge * 100, tipAmount * 100, grandTotal * 100 " +
+                        "FROM OrderIdempotency WHERE idempotencyKey = ?",
+                rs -> rs.next() ? new OrderIdempotency(
+                        rs.getString(1),
+                        rs.getInt(2),
+                        rs.getLong(3),
+                        rs.getLong(4),
+                        rs.getLong(5),
+                        rs.getLong(6)
+                ) : null,
+                idempotencyKey
         );
     }
 
+    // Ages are measured on the database clock, which also stamped createdAt
+    public int purgeIdempotencyKeys(long olderThanMinutes, int limit) {
+        return jdbcTemplate.update(
+                "DELETE FROM OrderIdempotency WHERE createdAt < NOW() - INTERVAL ? MINUTE LIMIT ?",
+                olderThanMinutes, limit);
+    }
+
     public void assignDriver(int orderNumber, String driverName) {
         jdbcTemplate.update("CALL proc_assign_driver(?,?)", orderNumber, driverName);
     }
@@ -200,17 +381,111 @@ public class FrontdashRepository {
         jdbcTemplate.update("CALL proc_set_delivery_time(?,?,?)", orderNumber, date, time);
     }
 
-    public List<Map<String, Object>> listOrders() {
-        Map<String, Object> out = listOrdersCall.execute();
-        return (List<Map<String, Object>>) out.get("rs");
+    // Keyset page: newest first, strictly below the cursor, one extra row fetched to know whether another page exists
+    public OrderPage listOrders(OrderFilter filter, Integer beforeOrderNumber, int limit, FieldProjection projection) {
+        StringBuilder sql = new StringBuilder("SELECT " + projection.selectList() + " FROM Orders WHERE 1=1");
+        List<Object> args = new ArrayList<>();
+        if (filter.status() != null) {
+            sql.append(" AND orderStatus = ?");
+            args.add(filter.status());
+        }
+        if (filter.restName() != null) {
+            sql.append(" AND restName = ?");
+            args.add(filter.restName());
+        }
+        if (filter.driverName() != null) {
+            sql.append(" AND driverName = ?");
+            args.add(filter.driverName());
+        }
+        if (filter.from() != null) {
+            sql.append(" AND orderDate >= ?");
+            args.add(Date.valueOf(filter.from()));
+        }
+        if (filter.to() != null) {
+            sql.append(" AND orderDate <= ?");
+            args.add(Date.valueOf(filter.to()));
+        }
+        if (beforeOrderNumber != null) {
+            sql.append(" AND orderNumber < ?");
+            args.add(beforeOrderNumber);
+        }
+        sql.append(" ORDER BY orderNumber DESC LIMIT ?");
+        args.add(limit + 1);
+        // orderNumber is a required field and first in the whitelist, so it is always column 1
+        if (projection == ORDER_LIST_FIELDS.all()) {
+            return page(jdbcTemplate.query(sql.toString(), (rs, rowNum) -> mapOrderListing(rs), args.toArray()),
+                    limit, OrderListing::orderNumber);
+        }
+        return page(jdbcTemplate.query(sql.toString(), (rs, rowNum) -> projection.map(rs, 1), args.toArray()),
+                limit, row -> ((Number) row.get("orderNumber")).intValue());
+    }
+
+    private static <T> OrderPage page(List<T> rows, int limit, ToIntFunction<T> orderNumber) {
+        if (rows.size() <= limit) {
+            return new OrderPage(rows, null);
+        }
+        List<T> page = new ArrayList<>(rows.subList(0, limit));
+        return new OrderPage(page, orderNumber.applyAsInt(page.get(limit - 1)));
+    }
+
+    // Forward-only read with fetch size MIN_VALUE: Connector/J streams rows off the socket instead of buffering
+    // the whole result. The connection is busy until the last row is read, so the sink should not touch the database.
+    public void streamOrdersWithItems(LocalDate from, LocalDate to, OrderExportSink sink) {
+        StringBuilder sql = new StringBuilder(
+                "SELECT o.orderNumber, o.restName, o.driverName, o.orderStatus, o.orderDate, o.orderTime, " +
+                        "o.deliveryDate, o.deliveryTime, o.subtotalAmount, o.serviceCharge, o.tipAmount, o.grandTotal, " +
+                        "i.itemID, i.itemName, i.itemPrice, i.quantity, i.lineSubtotal " +
+                        "FROM Orders o LEFT JOIN OrderToItems i ON i.orderNumber = o.orderNumber WHERE 1=1");
+        List<Object> args = new ArrayList<>();
+        if (from != null) {
+            sql.append(" AND o.orderDate >= ?");
+            args.add(Date.valueOf(from));
+        }
+        if (to != null) {
+            sql.append(" AND o.orderDate <= ?");
+            args.add(Date.valueOf(to));
+        }
+        // Ordering by the Orders key alone keeps each order's lines together without a filesort
+        sql.append(" ORDER BY o.orderNumber");
+        jdbcTemplate.query(conn -> {
+            PreparedStatement ps = conn.prepareStatement(sql.toString(), ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(Integer.MIN_VALUE);
+            for (int i = 0; i < args.size(); i++) {
+                ps.setObject(i + 1, args.get(i));
+            }
+            return ps;
+        }, new RowCallbackHandler() {
+            private int currentOrder;
+
+            @Override
+            public void processRow(ResultSet rs) throws SQLException {
+                int orderNumber = rs.getInt(1);
+                if (orderNumber != currentOrder) {
+                    currentOrder = orderNumber;
+                    sink.order(new ExportedOrder(orderNumber, rs.getString(2), rs.getString(3), rs.getString(4),
+                            rs.getObject(5, LocalDate.class), rs.getObject(6, LocalTime.class),
+                            rs.getObject(7, LocalDate.class), rs.getObject(8, LocalTime.class),
+                            rs.getBigDecimal(9), rs.getBigDecimal(10), rs.getBigDecimal(11), rs.getBigDecimal(12)));
+                }
+                int itemId = rs.getInt(13);
+                if (!rs.wasNull()) {
+                    sink.item(new ExportedOrderItem(orderNumber, itemId, rs.getString(14), rs.getBigDecimal(15),
+                            rs.getInt(16), rs.getBigDecimal(17)));
+                }
+            }
+        });
     }
 
+    @Transactional
     public void updateMenuItem(String restName, int itemId, String name, String desc, double price, String isAvailable) {
+        bumpMenuVersion(restName);
         jdbcTemplate.update("CALL proc_owner_update_menu_item(?,?,?,?,?,?)",
                 restName, itemId, name, desc, price, isAvailable);
     }
 
+    @Transactional
     public int createMenuItem(String restName, String name, String desc, double price, String isAvailable) {
+        bumpMenuVersion(restName);
         KeyHolder kh = new GeneratedKeyHolder();
         jdbcTemplate.update(conn -> {
             PreparedStatement ps = conn.prepareStatement(
@@ -231,44 +506,328 @@ public class FrontdashRepository {
         return itemId;
     }
 
+    public boolean restaurantExists(String restName) {
+        Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM Restaurant WHERE restName = ?", Integer.class, restName);
+        return count != null && count > 0;
+    }
+
+    // Both inserts go out as JDBC batches (multi-row INSERTs with rewriteBatchedStatements); call inside a transaction
+    public int[] createMenuItems(String restName, List<NewMenuItem> items) {
+        bumpMenuVersion(restName);
+        KeyHolder kh = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                conn -> conn.prepareStatement(
+                        "INSERT INTO MenuItems(itemName, itemDescription, itemPrice, isAvailable) VALUES (?,?,?,?)",
+                        Statement.RETURN_GENERATED_KEYS),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        NewMenuItem item = items.get(i);
+                        ps.setString(1, item.itemName());
+                        ps.setString(2, item.itemDescription());
+                        ps.setBigDecimal(3, item.itemPrice());
+                        ps.setString(4, item.isAvailable());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return items.size();
+                    }
+                },
+                kh);
+        List<Map<String, Object>> keys = kh.getKeyList();
+        if (keys.size() != items.size()) {
+            throw new IllegalStateException("Expected " + items.size() + " generated item IDs, got " + keys.size());
+        }
+        int[] itemIds = new int[keys.size()];
+        for (int i = 0; i < itemIds.length; i++) {
+            itemIds[i] = ((Number) keys.get(i).values().iterator().next()).intValue();
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO RestaurantToMenu(restName, itemID) VALUES (?,?)",
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        ps.setString(1, restName);
+                        ps.setInt(2, itemIds[i]);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return itemIds.length;
+                    }
+                });
+        return itemIds;
+    }
+
+    @Transactional
     public void updateHours(String restName, String dayOfWeek, String openTime, String closeTime, String isClosed) {
+        bumpHoursVersion(restName);
         jdbcTemplate.update("CALL proc_owner_update_hours(?,?,?,?,?)",
                 restName, dayOfWeek, openTime, closeTime, isClosed);
     }
 
+    @Transactional
     public void deleteMenuItem(String restName, int itemId) {
+        bumpMenuVersion(restName);
         jdbcTemplate.update("DELETE FROM RestaurantToMenu WHERE restName=? AND itemID=?", restName, itemId);
         jdbcTemplate.update("DELETE FROM MenuItems WHERE itemID=?", itemId);
     }
 
-    public Map<String, Object> getOrderSummary(int orderNumber) {
-        Map<String, Object> result = new HashMap<>();
-        List<Map<String, Object>> header = jdbcTemplate.queryForList(
-                "SELECT * FROM Orders WHERE orderNumber=?", orderNumber);
-        List<Map<String, Object>> items = jdbcTemplate.queryForList(
-                "SELECT oi.itemID, mi.itemName, mi.itemPrice, oi.quantity, oi.lineSubtotal " +
-                        "FROM OrderToItems oi JOIN MenuItems mi ON mi.itemID=oi.itemID WHERE oi.orderNumber=?",
-                orderNumber);
-        List<Map<String, Object>> address = jdbcTemplate.queryForList(
-                "SELECT a.* FROM OrderDeliveryAddress oda JOIN Address a ON a.addressID=oda.addressID WHERE oda.orderNumber=?",
-                orderNumber);
-        result.put("order", header);
-        result.put("items", items);
-        result.put("address", address);
-        return result;
+    public Map<String, Object> getOrderSummary(int orderNumber, FieldProjection projection) {
+        Map<String, Object> summary = getOrderSummaries(List.of(orderNumber), projection).get(orderNumber);
+        return summary != null ? summary : newOrderSummary(null, projection);
     }
 
-    public List<Map<String, Object>> getMenuByRestaurant(String restName) {
-        return jdbcTemplate.queryForList(
+    // One joined round trip for any number of orders; the delivery address is 1:1, so rows only multiply by items.
+    // Items and address are only joined when the projection asks for them.
+    public Map<Integer, Map<String, Object>> getOrderSummaries(Collection<Integer> orderNumbers, FieldProjection projection) {
+        Map<Integer, Map<String, Object>> summaries = new LinkedHashMap<>();
+        if (orderNumbers.isEmpty()) {
+            return summaries;
+        }
+        boolean withItems = projection.includes("items");
+        boolean withAddress = projection.includes("address");
+        StringBuilder sql = new StringBuilder("SELECT " + projection.selectList());
+        int itemColumn = projection.columnCount() + 1;
+        int addressColumn = itemColumn + (withItems ? ITEM_SUMMARY_COLUMNS.length : 0);
+        if (withItems) {
+            sql.append(", i.itemID, i.itemName, i.itemPrice, i.quantity, i.lineSubtotal");
+        }
+        if (withAddress) {
+            sql.append(", a.addressID, a.streetAddress1, a.streetAddress2, a.city, a.state, a.zip");
+        }
+        sql.append(" FROM Orders o");
+        if (withItems) {
+            sql.append(" LEFT JOIN OrderToItems i ON i.orderNumber = o.orderNumber");
+        }
+        if (withAddress) {
+            sql.append(" LEFT JOIN OrderDeliveryAddress oda ON oda.orderNumber = o.orderNumber" +
+                    " LEFT JOIN Address a ON a.addressID = oda.addressID");
+        }
+        sql.append(" WHERE o.orderNumber IN (")
+                .append(String.join(",", Collections.nCopies(orderNumbers.size(), "?")))
+                .append(") ORDER BY o.orderNumber");
+        if (withItems) {
+            sql.append(", i.itemID");
+        }
+        jdbcTemplate.query(sql.toString(), rs -> {
+            // orderNumber is a required field and first in the whitelist, so it is always column 1
+            int orderNumber = rs.getInt(1);
+            Map<String, Object> summary = summaries.get(orderNumber);
+            if (summary == null) {
+                summary = newOrderSummary(projection.map(rs, 1), projection);
+                if (withAddress && rs.getObject(addressColumn) != null) {
+                    listOf(summary, "address").add(columns(rs, addressColumn, ADDRESS_SUMMARY_COLUMNS));
+                }
+                summaries.put(orderNumber, summary);
+            }
+            if (withItems && rs.getObject(itemColumn) != null) {
+                listOf(summary, "items").add(columns(rs, itemColumn, ITEM_SUMMARY_COLUMNS));
+            }
+        }, orderNumbers.toArray());
+        return summaries;
+    }
+
+    private static Map<String, String> fieldColumns(String... fieldColumnPairs) {
+        Map<String, String> columns = new LinkedHashMap<>();
+        for (int i = 0; i < fieldColumnPairs.length; i += 2) {
+            columns.put(fieldColumnPairs[i], fieldColumnPairs[i + 1]);
+        }
+        return columns;
+    }
+
+    private static final String[] ITEM_SUMMARY_COLUMNS = {"itemID", "itemName", "itemPrice", "quantity", "lineSubtotal"};
+    private static final String[] ADDRESS_SUMMARY_COLUMNS = {"addressID", "streetAddress1", "streetAddress2", "city",
+            "state", "zip"};
+
+    // Same shape the three separate queries used to produce: {"order": [header], "items": [...], "address": [...]},
+    // minus any group the projection left out
+    private static Map<String, Object> newOrderSummary(Map<String, Object> header, FieldProjection projection) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("order", header == null ? new ArrayList<>() : new ArrayList<>(List.of(header)));
+        if (projection.includes("items")) {
+            summary.put("items", new ArrayList<>());
+        }
+        if (projection.includes("address")) {
+            summary.put("address", new ArrayList<>());
+        }
+        return summary;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> listOf(Map<String, Object> summary, String key) {
+        return (List<Map<String, Object>>) summary.get(key);
+    }
+
+    private static Map<String, Object> columns(ResultSet rs, int first, String[] names) throws SQLException {
+        Map<String, Object> row = new LinkedHashMap<>();
+        for (int i = 0; i < names.length; i++) {
+            row.put(names[i], JdbcUtils.getResultSetValue(rs, first + i));
+        }
+        return row;
+    }
+
+    public List<MenuEntry> getMenuByRestaurant(String restName) {
+        return jdbcTemplate.query(
                 "SELECT mi.itemID, mi.itemName, mi.itemPrice, mi.isAvailable " +
                         "FROM RestaurantToMenu rtm JOIN MenuItems mi ON mi.itemID = rtm.itemID " +
-                        "WHERE rtm.restName = ?", restName);
+                        "WHERE rtm.restName = ?", (rs, rowNum) -> mapMenuEntry(rs, 1), restName);
     }
 
-    public List<Map<String, Object>> getHoursByRestaurant(String restName) {
-        return jdbcTemplate.queryForList(
+    public Map<String, List<MenuEntry>> getMenusByRestaurants(Collection<String> restNames) {
+        Map<String, List<MenuEntry>> menus = new HashMap<>();
+        if (restNames.isEmpty()) {
+            return menus;
+        }
+        jdbcTemplate.query(
+                "SELECT rtm.restName, mi.itemID, mi.itemName, mi.itemPrice, mi.isAvailable " +
+                        "FROM RestaurantToMenu rtm JOIN MenuItems mi ON mi.itemID = rtm.itemID " +
+                        "WHERE rtm.restName IN (" + String.join(",", Collections.nCopies(restNames.size(), "?")) + ")",
+                rs -> {
+                    menus.computeIfAbsent(rs.getString(1), name -> new ArrayList<>()).add(mapMenuEntry(rs, 2));
+                },
+                restNames.toArray());
+        return menus;
+    }
+
+    public List<HoursEntry> getHoursByRestaurant(String restName) {
+        return jdbcTemplate.query(
                 "SELECT h.hoursID, h.dayOfWeek, h.openTime, h.closeTime, h.isClosed " +
                         "FROM RestaurantToHours rth JOIN Hours h ON h.hoursID = rth.hoursID " +
-                        "WHERE rth.restName = ?", restName);
+                        "WHERE rth.restName = ?",
+                (rs, rowNum) -> new HoursEntry(rs.getInt(1), rs.getString(2), rs.getObject(3, LocalTime.class),
+                        rs.getObject(4, LocalTime.class), rs.getString(5)),
+                restName);
+    }
+
+    public List<RestaurantHours> getListedRestaurantHours() {
+        return jdbcTemplate.query(LISTED_HOURS_SQL, FrontdashRepository::mapRestaurantHours);
+    }
+
+    public List<RestaurantHours> getListedRestaurantHours(String restName) {
+        return jdbcTemplate.query(LISTED_HOURS_SQL + " AND rth.restName = ?", FrontdashRepository::mapRestaurantHours, restName);
+    }
+
+    public List<String> getListedRestaurantNames() {
+        return jdbcTemplate.queryForList(
+                "SELECT restName FROM Restaurant WHERE approvalByAdminStatus = 'Approved' AND isActive = 'Y'", String.class);
+    }
+
+    public boolean isRestaurantListed(String restName) {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM Restaurant WHERE restName = ? AND approvalByAdminStatus = 'Approved' AND isActive = 'Y'",
+                Integer.class, restName);
+        return count != null && count > 0;
+    }
+
+    public List<SearchableItem> getListedMenuItems() {
+        return jdbcTemplate.query(LISTED_ITEMS_SQL, FrontdashRepository::mapSearchableItem);
+    }
+
+    public List<SearchableItem> getListedMenuItems(String restName) {
+        return jdbcTemplate.query(LISTED_ITEMS_SQL + " AND rtm.restName = ?", FrontdashRepository::mapSearchableItem, restName);
+    }
+
+    // Column order of proc_list_restaurants; listRestaurantsByLocation selects the same columns first
+    static RestaurantListing mapRestaurantListing(ResultSet rs) throws SQLException {
+        return new RestaurantListing(rs.getString(1), rs.getString(2), rs.getString(3), rs.getString(4),
+                rs.getString(5), rs.getString(6), rs.getString(7));
+    }
+
+    static MenuEntry mapMenuEntry(ResultSet rs, int first) throws SQLException {
+        return new MenuEntry(rs.getInt(first), rs.getString(first + 1), rs.getBigDecimal(first + 2), rs.getString(first + 3));
     }
+
+    // Columns in ORDER_LIST_FIELDS order
+    static OrderListing mapOrderListing(ResultSet rs) throws SQLException {
+        return new OrderListing(rs.getInt(1), rs.getString(2), rs.getString(3), rs.getString(4),
+                rs.getObject(5, LocalDate.class), rs.getObject(6, LocalTime.class),
+                rs.getObject(7, LocalDate.class), rs.getObject(8, LocalTime.class), rs.getBigDecimal(9));
+    }
+
+    private static final String LISTED_ITEMS_SQL =
+            "SELECT rtm.restName, mi.itemID, mi.itemName, mi.itemDescription, mi.isAvailable " +
+                    "FROM RestaurantToMenu rtm JOIN MenuItems mi ON mi.itemID = rtm.itemID " +
+                    "JOIN Restaurant r ON r.restName = rtm.restName " +
+                    "WHERE r.approvalByAdminStatus = 'Approved' AND r.isActive = 'Y'";
+
+    private static SearchableItem mapSearchableItem(ResultSet rs, int rowNum) throws SQLException {
+        return new SearchableItem(rs.getString(1), rs.getInt(2), rs.getString(3), rs.getString(4),
+                "Y".equals(rs.getString(5)));
+    }
+
+    private static final String LISTED_HOURS_SQL =
+            "SELECT rth.restName, h.dayOfWeek, h.openTime, h.closeTime, h.isClosed " +
+                    "FROM RestaurantToHours rth JOIN Hours h ON h.hoursID = rth.hoursID " +
+                    "JOIN Restaurant r ON r.restName = rth.restName " +
+                    "WHERE r.approvalByAdminStatus = 'Approved' AND r.isActive = 'Y'";
+
+    private static RestaurantHours mapRestaurantHours(ResultSet rs, int rowNum) throws SQLException {
+        Time open = rs.getTime(3);
+        Time close = rs.getTime(4);
+        return new RestaurantHours(rs.getString(1), rs.getString(2),
+                open == null ? null : open.toLocalTime(), close == null ? null : close.toLocalTime(),
+                "Y".equals(rs.getString(5)));
+    }
+
+    public record OrderHeader(int orderNumber, String restName, long subtotalCents, long serviceChargeCents,
+                              long tipCents, long grandTotalCents) {}
+
+    public record MenuItemPrice(int itemId, String itemName, long priceCents, boolean available) {}
+
+    public record OrderLine(int orderNumber, int itemId, String itemName, long unitPriceCents, int quantity,
+                            long lineSubtotalCents) {}
+
+    public record OrderDelivery(int orderNumber, int addressId, String contactName, String contactPhone) {}
+
+    public record OrderIdempotency(String idempotencyKey, int orderNumber, long subtotalCents, long serviceChargeCents,
+                                   long tipCents, long grandTotalCents) {}
+
+    public record RestaurantHours(String restName, String dayOfWeek, LocalTime openTime, LocalTime closeTime,
+                                  boolean closed) {}
+
+    public record SearchableItem(String restName, int itemId, String itemName, String itemDescription,
+                                 boolean available) {}
+
+    // Read-side rows. Component names are the JSON property names the API has always returned.
+
+    public record RestaurantListing(String restName, String isActive, String approvalByAdminStatus, String pendingWithdraw,
+                                    String contactName, String contactEmail, String contactPhone) {}
+
+    public record LocatedRestaurant(RestaurantListing restaurant, String zip) {}
+
+    public record StaffListing(String username, String firstName, String lastName, String employementStatus) {}
+
+    public record DriverListing(String driverName, String employementStatus, String isAvailable) {}
+
+    public record OrderListing(int orderNumber, String restName, String driverName, String orderStatus,
+                               LocalDate orderDate, LocalTime orderTime, LocalDate deliveryDate, LocalTime deliveryTime,
+                               BigDecimal grandTotal) {}
+
+    public record MenuEntry(int itemID, String itemName, BigDecimal itemPrice, String isAvailable) {}
+
+    public record HoursEntry(int hoursID, String dayOfWeek, LocalTime openTime, LocalTime closeTime, String isClosed) {}
+
+    public record OrderFilter(String status, String restName, String driverName, LocalDate from, LocalDate to) {}
+
+    /** Rows are {@link OrderListing}s, or field-name maps when a sparse projection was requested. */
+    public record OrderPage(List<?> orders, Integer nextCursor) {}
+
+    public record ExportedOrder(int orderNumber, String restName, String driverName, String orderStatus,
+                                LocalDate orderDate, LocalTime orderTime, LocalDate deliveryDate, LocalTime deliveryTime,
+                                BigDecimal subtotalAmount, BigDecimal serviceCharge, BigDecimal tipAmount,
+                                BigDecimal grandTotal) {}
+
+    public record ExportedOrderItem(int orderNumber, int itemId, String itemName, BigDecimal itemPrice, int quantity,
+                                    BigDecimal lineSubtotal) {}
+
+    /** Receives an export in orderNumber order: each order, then its line items. */
+    public interface OrderExportSink {
+        void order(ExportedOrder order);
+
+        void item(ExportedOrderItem item);
+    }
+
+    public record NewMenuItem(String itemName, String itemDescription, BigDecimal itemPrice, String isAvailable) {}
 }
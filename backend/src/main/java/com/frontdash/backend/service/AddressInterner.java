@@ -0,0 +1,96 @@
+package com.frontdash.backend.service;
+
+import com.frontdash.backend.repository.FrontdashRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Resolves a postal address to a single Address row. Addresses are normalized and SHA-256 hashed;
+ * the hash is unique in the table and recently seen hashes map straight to their addressID, so a
+ * repeat customer's address costs no write at all.
+ */
+@Component
+public class AddressInterner {
+
+    private final FrontdashRepository repository;
+    private final Map<String, Integer> idsByHash;
+
+    public AddressInterner(FrontdashRepository repository,
+                           @Value("${frontdash.address.cache-size:10000}") int cacheSize) {
+        this.repository = repository;
+        int capacity = Math.max(1, cacheSize);
+        this.idsByHash = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Integer> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    public int intern(String street1, String street2, String city, String state, String zip) {
+        String hash = hash(street1, street2, city, state, zip);
+        Integer cached;
+        synchronized (idsByHash) {
+            cached = idsByHash.get(hash);
+        }
+        if (cached != null) {
+            return cached;
+        }
+        int addressId = repository.internAddress(hash, trim(street1), trim(street2), trim(city), trim(state), trim(zip));
+        remember(hash, addressId);
+        return addressId;
+    }
+
+    // Must stay in step with the SQL backfill in db/migrations/004_address_interning.sql
+    static String hash(String street1, String street2, String city, String state, String zip) {
+        String canonical = String.join("|",
+                normalize(street1), normalize(street2), normalize(city), normalize(state), normalize(zip));
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(canonical.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        return value.replaceAll("\\s+", " ").strip().toLowerCase(Locale.ROOT);
+    }
+
+    private static String trim(String value) {
+        return value == null ? null : value.strip();
+    }
+
+    private void remember(String hash, int addressId) {
+        // A row inserted by a transaction that later rolls back must never be cached
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    put(hash, addressId);
+                }
+            });
+        } else {
+            put(hash, addressId);
+        }
+    }
+
+    private void put(String hash, int addressId) {
+        synchronized (idsByHash) {
+            idsByHash.put(hash, addressId);
+        }
+    }
+}
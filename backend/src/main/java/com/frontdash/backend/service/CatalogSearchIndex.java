@@ -0,0 +1,299 @@
+package com.frontdash.backend.service;
+
+import com.frontdash.backend.repository.FrontdashRepository;
+import com.frontdash.backend.repository.FrontdashRepository.SearchableItem;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Inverted index over listed restaurant names and their menu items' names and descriptions.
+ * Terms are kept sorted so the last word of a query can match as a prefix (typeahead); every
+ * query word must match. Built once at startup and kept current per restaurant by the menu,
+ * registration and approval write paths. A full rebuild loads into a fresh index and swaps it in,
+ * so searches keep using the previous one until it is ready.
+ */
+@Component
+public class CatalogSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogSearchIndex.class);
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    private static final int RESTAURANT_NAME_WEIGHT = 4;
+    private static final int ITEM_NAME_WEIGHT = 3;
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    private final FrontdashRepository repository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Lock rebuilding = new ReentrantLock();
+    // Restaurants written while a rebuild was loading; re-read once its index is live
+    private final Set<String> refreshedDuringLoad = ConcurrentHashMap.newKeySet();
+    private Index index = new Index();
+    private volatile boolean loading;
+    private volatile boolean built;
+
+    public CatalogSearchIndex(FrontdashRepository repository) {
+        this.repository = repository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.warn("Catalog search index not built at startup, will retry on first search", e);
+        }
+    }
+
+    public List<Hit> search(String query, int limit) {
+        List<String> words = tokenize(query);
+        if (words.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        if (!built) {
+            // One caller loads the catalog; concurrent searches answer from the current index meanwhile
+            tryRebuild();
+        }
+        lock.readLock().lock();
+        try {
+            Map<String, Integer> scores = null;
+            for (int i = 0; i < words.size(); i++) {
+                Map<String, Integer> wordScores = index.match(words.get(i), i == words.size() - 1);
+                if (scores == null) {
+                    scores = wordScores;
+                } else {
+                    Map<String, Integer> both = new HashMap<>();
+                    for (Map.Entry<String, Integer> entry : scores.entrySet()) {
+                        Integer score = wordScores.get(entry.getKey());
+                        if (score != null) {
+                            both.put(entry.getKey(), entry.getValue() + score);
+                        }
+                    }
+                    scores = both;
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+            List<Hit> hits = new ArrayList<>(scores.size());
+            scores.forEach((key, score) -> hits.add(index.documents.get(key).toHit(score)));
+            hits.sort(Comparator.comparingInt(Hit::score).reversed().thenComparing(Hit::name, String.CASE_INSENSITIVE_ORDER));
+            return hits.size() > limit ? List.copyOf(hits.subList(0, limit)) : hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void tryRebuild() {
+        if (!rebuilding.tryLock()) {
+            return;
+        }
+        try {
+            if (!built) {
+                load();
+            }
+        } catch (RuntimeException e) {
+            log.warn("Catalog search index rebuild failed, serving the previous index", e);
+        } finally {
+            rebuilding.unlock();
+        }
+    }
+
+    /** Loads the whole catalog into a fresh index and swaps it in; waits for a rebuild already running. */
+    public void rebuild() {
+        rebuilding.lock();
+        try {
+            load();
+        } finally {
+            rebuilding.unlock();
+        }
+    }
+
+    private void load() {
+        loading = true;
+        try {
+            List<String> restaurants = repository.getListedRestaurantNames();
+            List<SearchableItem> items = repository.getListedMenuItems();
+            Index fresh = new Index();
+            for (String restName : restaurants) {
+                fresh.addRestaurant(restName);
+            }
+            for (SearchableItem item : items) {
+                fresh.addItem(item);
+            }
+            lock.writeLock().lock();
+            try {
+                index = fresh;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            built = true;
+            log.info("Catalog search index built ({} restaurants, {} menu items)", restaurants.size(), items.size());
+        } finally {
+            loading = false;
+        }
+        // Writes that raced the full load may be missing from it; re-read just those restaurants
+        applyRefreshedDuringLoad();
+    }
+
+    /** Re-reads one restaurant and its menu; it disappears from results if it is no longer listed. */
+    public void refreshRestaurant(String restName) {
+        if (loading) {
+            refreshedDuringLoad.add(restName);
+            if (loading) {
+                return;
+            }
+            // The load finished while we were recording; make sure our restaurant is not left behind
+            applyRefreshedDuringLoad();
+            return;
+        }
+        if (built) {
+            reload(restName);
+        }
+    }
+
+    private void applyRefreshedDuringLoad() {
+        for (String restName : refreshedDuringLoad) {
+            if (refreshedDuringLoad.remove(restName) && built) {
+                reload(restName);
+            }
+        }
+    }
+
+    private void reload(String restName) {
+        boolean listed = repository.isRestaurantListed(restName);
+        List<SearchableItem> items = listed ? repository.getListedMenuItems(restName) : List.of();
+        replaceRestaurant(restName, listed, items);
+    }
+
+    void replaceRestaurant(String restName, boolean listed, List<SearchableItem> items) {
+        lock.writeLock().lock();
+        try {
+            index.removeRestaurant(restName);
+            if (listed) {
+                index.addRestaurant(restName);
+                items.forEach(index::addItem);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Postings and documents for one build; mutated only under the write lock once published. */
+    private static final class Index {
+        private final NavigableMap<String, Map<String, Integer>> postings = new TreeMap<>();
+        private final Map<String, Document> documents = new HashMap<>();
+        private final Map<String, Set<String>> documentsByRestaurant = new HashMap<>();
+
+        // Exact term matches score double; the final query word may also match as a prefix
+        Map<String, Integer> match(String word, boolean prefix) {
+            Map<String, Integer> scores = new HashMap<>();
+            Map<String, Map<String, Integer>> terms = prefix
+                    ? postings.subMap(word, true, word + Character.MAX_VALUE, false)
+                    : postings.subMap(word, true, word, true);
+            terms.forEach((term, docs) -> {
+                int boost = term.equals(word) ? 2 : 1;
+                docs.forEach((key, weight) -> scores.merge(key, weight * boost, Math::max));
+            });
+            return scores;
+        }
+
+        void addRestaurant(String restName) {
+            Map<String, Integer> terms = new HashMap<>();
+            collect(terms, restName, RESTAURANT_NAME_WEIGHT);
+            addDocument(new Document("restaurant:" + restName, "restaurant", restName, null, restName, null, true,
+                    terms.keySet()), terms);
+        }
+
+        void addItem(SearchableItem item) {
+            Map<String, Integer> terms = new HashMap<>();
+            collect(terms, item.itemName(), ITEM_NAME_WEIGHT);
+            collect(terms, item.itemDescription(), DESCRIPTION_WEIGHT);
+            addDocument(new Document("item:" + item.itemId(), "item", item.restName(), item.itemId(), item.itemName(),
+                    item.itemDescription(), item.available(), terms.keySet()), terms);
+        }
+
+        void removeRestaurant(String restName) {
+            Set<String> previous = documentsByRestaurant.remove(restName);
+            if (previous != null) {
+                previous.forEach(this::removeDocument);
+            }
+        }
+
+        private void addDocument(Document document, Map<String, Integer> terms) {
+            documents.put(document.key(), document);
+            documentsByRestaurant.computeIfAbsent(document.restName(), name -> new HashSet<>()).add(document.key());
+            terms.forEach((term, weight) -> postings.computeIfAbsent(term, t -> new HashMap<>()).put(document.key(), weight));
+        }
+
+        private void removeDocument(String key) {
+            Document document = documents.remove(key);
+            if (document == null) {
+                return;
+            }
+            for (String term : document.terms()) {
+                Map<String, Integer> docs = postings.get(term);
+                if (docs != null) {
+                    docs.remove(key);
+                    if (docs.isEmpty()) {
+                        postings.remove(term);
+                    }
+                }
+            }
+        }
+    }
+
+    private static void collect(Map<String, Integer> terms, String text, int weight) {
+        for (String term : tokenize(text)) {
+            terms.merge(term, weight, Math::max);
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        Set<String> tokens = new LinkedHashSet<>();
+        for (String token : NON_WORD.split(folded)) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return List.copyOf(tokens);
+    }
+
+    private record Document(String key, String type, String restName, Integer itemId, String name, String description,
+                            boolean available, Set<String> terms) {
+        Hit toHit(int score) {
+            return new Hit(type, restName, itemId, name, description, available, score);
+        }
+    }
+
+    public record Hit(String type, String restName, Integer itemId, String name, String description, boolean available,
+                      int score) {}
+}
@@ -0,0 +1,289 @@
+package com.frontdash.backend.service;
+
+import com.frontdash.backend.repository.FrontdashRepository;
+import com.frontdash.backend.repository.FrontdashRepository.MenuEntry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Persists the in-memory catalog (directory JSON, customer menus, open-hours bitsets) to a binary
+ * file and maps it back in at startup, so a freshly deployed node serves catalog reads before its
+ * first database query. Menus are stored with the menuVersion they were loaded under, so a
+ * single-menu read only serves one whose version is still current. The preloaded data is then
+ * reconciled against MySQL in the background; any menu that turns out to differ is dropped.
+ * Order pricing is deliberately not restored: MenuPriceIndex always loads from the database.
+ */
+@Component
+public class CatalogSnapshotStore {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogSnapshotStore.class);
+
+    private static final int MAGIC = 0x46444353; // "FDCS"
+    private static final short FORMAT_VERSION = 2;
+    private static final int RECONCILE_BATCH = 100;
+
+    private final FrontdashRepository repository;
+    private final RestaurantDirectory directory;
+    private final MenuCache menuCache;
+    private final OpenHoursIndex openHours;
+    private final Path path;
+    private final AtomicBoolean firstMenuServed = new AtomicBoolean();
+
+    private volatile List<String> preloadedMenus = List.of();
+    private volatile boolean warmStart;
+
+    public CatalogSnapshotStore(FrontdashRepository repository, RestaurantDirectory directory, MenuCache menuCache, OpenHoursIndex openHours,
+                                @Value("${frontdash.catalog.snapshot.path:}") String path) {
+        this.repository = repository;
+        this.directory = directory;
+        this.menuCache = menuCache;
+        this.openHours = openHours;
+        this.path = path.isBlank() ? null : Path.of(path);
+    }
+
+    @PostConstruct
+    void load() {
+        if (path == null || !Files.isReadable(path)) {
+            return;
+        }
+        long start = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC || buffer.getShort() != FORMAT_VERSION) {
+                log.warn("Ignoring catalog snapshot {} with an unknown header", path);
+                return;
+            }
+            long writtenAt = buffer.getLong();
+
+            // Decode the whole file before publishing anything: a truncated or corrupt file must not
+            // leave part of it in the caches with no reconciliation scheduled to correct it
+            int directories = buffer.getInt();
+            Map<Integer, byte[]> directoryJson = new HashMap<>(directories * 2);
+            for (int i = 0; i < directories; i++) {
+                int slot = buffer.get();
+                byte[] json = new byte[buffer.getInt()];
+                buffer.get(json);
+                directoryJson.put(slot, json);
+            }
+
+            int menus = buffer.getInt();
+            Map<String, PreloadedMenu> menusByRestaurant = new LinkedHashMap<>(menus * 2);
+            for (int i = 0; i < menus; i++) {
+                String restName = readString(buffer);
+                long menuVersion = buffer.getLong();
+                int rows = buffer.getInt();
+                List<MenuEntry> menu = new ArrayList<>(rows);
+                for (int r = 0; r < rows; r++) {
+                    int itemId = buffer.getInt();
+                    String itemName = readString(buffer);
+                    long unscaled = buffer.getLong();
+                    BigDecimal itemPrice = BigDecimal.valueOf(unscaled, buffer.getInt());
+                    menu.add(new MenuEntry(itemId, itemName, itemPrice, readString(buffer)));
+                }
+                menusByRestaurant.put(restName, new PreloadedMenu(menuVersion, menu));
+            }
+
+            int hours = buffer.getInt();
+            Map<String, long[]> bitsets = new HashMap<>(hours * 2);
+            for (int i = 0; i < hours; i++) {
+                String restName = readString(buffer);
+                long[] bits = new long[buffer.getInt()];
+                buffer.asLongBuffer().get(bits);
+                buffer.position(buffer.position() + bits.length * Long.BYTES);
+                bitsets.put(restName, bits);
+            }
+
+            directoryJson.forEach(directory::preload);
+            menusByRestaurant.forEach((restName, menu) -> menuCache.preload(restName, menu.version(), menu.rows()));
+            preloadedMenus = List.copyOf(menusByRestaurant.keySet());
+            openHours.preload(bitsets);
+            warmStart = true;
+
+            log.info("Loaded catalog snapshot written at {} ({} directory variants, {} menus, {} hours) in {} ms",
+                    Instant.ofEpochMilli(writtenAt), directories, menus, hours,
+                    (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not load catalog snapshot {}, starting cold", path, e);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileInBackground() {
+        if (!warmStart) {
+            return;
+        }
+        Thread thread = new Thread(this::reconcile, "catalog-snapshot-reconcile");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    void reconcile() {
+        try {
+            directory.reload();
+            if (openHours.currentBitsets() != null) {
+                openHours.reload();
+            }
+            List<String> restNames = preloadedMenus;
+            int stale = 0;
+            for (int from = 0; from < restNames.size(); from += RECONCILE_BATCH) {
+                List<String> batch = restNames.subList(from, Math.min(restNames.size(), from + RECONCILE_BATCH));
+                Map<String, List<MenuEntry>> fresh = repository.getMenusByRestaurants(batch);
+                Map<String, MenuCache.Entry> held = menuCache.currentEntries();
+                for (String restName : batch) {
+                    MenuCache.Entry entry = held.get(restName);
+                    if (entry != null && !entry.rows().equals(fresh.getOrDefault(restName, List.of()))) {
+                        menuCache.invalidate(restName);
+                        stale++;
+                    }
+                }
+            }
+            preloadedMenus = List.of();
+            log.info("Catalog snapshot reconciled against the database ({} of {} menus were stale)", stale, restNames.size());
+        } catch (RuntimeException e) {
+            log.warn("Catalog snapshot reconciliation failed; preloaded menus are retired", e);
+            preloadedMenus.forEach(menuCache::invalidate);
+        }
+    }
+
+    /** Called on every menu read; logs how long after JVM start the first one was served. */
+    public void menuServed() {
+        if (!firstMenuServed.get() && firstMenuServed.compareAndSet(false, true)) {
+            long uptime = ManagementFactory.getRuntimeMXBean().getUptime();
+            log.info("First menu served {} ms after JVM start ({})", uptime,
+                    warmStart ? "warm start from catalog snapshot" : "cold start");
+        }
+    }
+
+    @Scheduled(initialDelayString = "${frontdash.catalog.snapshot.interval-ms:60000}",
+            fixedDelayString = "${frontdash.catalog.snapshot.interval-ms:60000}")
+    public void writePeriodically() {
+        if (path != null) {
+            write();
+        }
+    }
+
+    @PreDestroy
+    void writeOnShutdown() {
+        if (path != null) {
+            write();
+        }
+    }
+
+    void write() {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 * 1024);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(MAGIC);
+            out.writeShort(FORMAT_VERSION);
+            out.writeLong(System.currentTimeMillis());
+
+            Map<Integer, byte[]> directories = directory.currentJson();
+            out.writeInt(directories.size());
+            for (Map.Entry<Integer, byte[]> entry : directories.entrySet()) {
+                out.writeByte(entry.getKey());
+                out.writeInt(entry.getValue().length);
+                out.write(entry.getValue());
+            }
+
+            Map<String, MenuCache.Entry> menus = new HashMap<>();
+            menuCache.currentEntries().forEach((restName, entry) -> {
+                if (entry.rows().stream().allMatch(CatalogSnapshotStore::isSnapshotRow)) {
+                    menus.put(restName, entry);
+                }
+            });
+            out.writeInt(menus.size());
+            for (Map.Entry<String, MenuCache.Entry> entry : menus.entrySet()) {
+                writeString(out, entry.getKey());
+                out.writeLong(entry.getValue().version());
+                out.writeInt(entry.getValue().rows().size());
+                for (MenuEntry row : entry.getValue().rows()) {
+                    out.writeInt(row.itemID());
+                    writeString(out, row.itemName());
+                    out.writeLong(row.itemPrice().unscaledValue().longValueExact());
+                    out.writeInt(row.itemPrice().scale());
+                    writeString(out, row.isAvailable());
+                }
+            }
+
+            Map<String, long[]> bitsets = openHours.currentBitsets();
+            bitsets = bitsets == null ? Map.of() : bitsets;
+            out.writeInt(bitsets.size());
+            for (Map.Entry<String, long[]> entry : bitsets.entrySet()) {
+                writeString(out, entry.getKey());
+                out.writeInt(entry.getValue().length);
+                for (long word : entry.getValue()) {
+                    out.writeLong(word);
+                }
+            }
+            out.flush();
+
+            // Write-then-rename so a crash mid-write never leaves a torn snapshot behind
+            Path parent = path.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path tmp = Files.createTempFile(parent, path.getFileName().toString(), ".tmp");
+            try {
+                Files.write(tmp, bytes.toByteArray());
+                Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not write catalog snapshot {}", path, e);
+        }
+    }
+
+    // Prices are written as a long unscaled value plus scale; a menu with a price that does not fit is skipped
+    private static boolean isSnapshotRow(MenuEntry row) {
+        return row.itemPrice() != null && row.itemPrice().unscaledValue().bitLength() < 64;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(utf8.length);
+        out.write(utf8);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] utf8 = new byte[length];
+        buffer.get(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    private record PreloadedMenu(long version, List<MenuEntry> rows) {}
+}
@@ -0,0 +1,18 @@
+package com.frontdash.backend.service;
+
+/**
+ * Raised when every order export slot is taken; the caller should retry after the given delay.
+ */
+public class ExportBusyException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public ExportBusyException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -2,48 +2,139 @@ package com.frontdash.backend.service;
 
 import com.frontdash.backend.dto.CreateOrderRequest;
 import com.frontdash.backend.dto.CreateOrderResponse;
+import com.frontdash.backend.dto.MenuImportResponse;
+import com.frontdash.backend.dto.OrderQuoteRequest;
+import com.frontdash.backend.dto.OrderQuoteResponse;
+import com.frontdash.backend.repository.FieldProjection;
 import com.frontdash.backend.repository.FrontdashRepository;
+import com.frontdash.backend.repository.FrontdashRepository.DriverListing;
+import com.frontdash.backend.repository.FrontdashRepository.HoursEntry;
+import com.frontdash.backend.repository.FrontdashRepository.MenuEntry;
+import com.frontdash.backend.repository.FrontdashRepository.OrderFilter;
+import com.frontdash.backend.repository.FrontdashRepository.OrderIdempotency;
+import com.frontdash.backend.repository.FrontdashRepository.OrderLine;
+import com.frontdash.backend.repository.FrontdashRepository.OrderPage;
+import com.frontdash.backend.repository.FrontdashRepository.StaffListing;
+import com.frontdash.backend.service.MenuPriceIndex.RestaurantPrices;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
 
-import java.math.BigDecimal;
-import java.math.RoundingMode;
+import java.io.IOException;
+import java.io.InputStream;
 import java.sql.Date;
 import java.sql.Time;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.frontdash.backend.service.PricingEngine.toAmount;
 
 @Service
 public class FrontdashService {
 
-    private final FrontdashRepository repository;
+    private static final int MAX_MENUS_PER_REQUEST = 100;
+    private static final int MAX_SEARCH_RESULTS = 50;
+    private static final int DEFAULT_ORDER_PAGE = 50;
+    private static final int MAX_ORDER_PAGE = 200;
+    private static final int MAX_ORDER_DATE_SPAN_DAYS = 92;
+    private static final int MAX_SUMMARIES_PER_REQUEST = 200;
+    private static final Set<String> ORDER_STATUSES = Set.of("In Progress", "AssignedDriver", "Delivered");
 
-    public FrontdashService(FrontdashRepository repository) {
+    private final FrontdashRepository repository;
+    private final OrderWriter orderWriter;
+    private final OrderIngestionPipeline ingestionPipeline;
+    private final OrderNumberAllocator orderNumbers;
+    private final IdempotencyStore idempotencyStore;
+    private final PricingEngine pricing;
+    private final AddressInterner addresses;
+    private final MenuPriceIndex priceIndex;
+    private final KitchenCapacityGuard kitchenCapacity;
+    private final MenuCache menuCache;
+    private final RestaurantDirectory directory;
+    private final OpenHoursIndex openHours;
+    private final CatalogSearchIndex searchIndex;
+    private final SingleFlight singleFlight;
+    private final CatalogSnapshotStore catalogSnapshot;
+    private final MenuImporter menuImporter;
+    private final OrderExporter orderExporter;
+    // Bumped after every write to staff, drivers or orders, so a coalesced read never predates one
+    private final AtomicLong staffVersion = new AtomicLong();
+    private final AtomicLong driverVersion = new AtomicLong();
+    private final AtomicLong orderVersion = new AtomicLong();
+
+    public FrontdashService(FrontdashRepository repository, OrderWriter orderWriter, OrderIngestionPipeline ingestionPipeline,
+                            OrderNumberAllocator orderNumbers, IdempotencyStore idempotencyStore, PricingEngine pricing,
+                            AddressInterner addresses, MenuPriceIndex priceIndex, KitchenCapacityGuard kitchenCapacity,
+                            MenuCache menuCache, RestaurantDirectory directory, OpenHoursIndex openHours,
+                            CatalogSearchIndex searchIndex, SingleFlight singleFlight,
+                            CatalogSnapshotStore catalogSnapshot, MenuImporter menuImporter,
+                            OrderExporter orderExporter) {
         this.repository = repository;
+        this.orderWriter = orderWriter;
+        this.ingestionPipeline = ingestionPipeline;
+        this.orderNumbers = orderNumbers;
+        this.idempotencyStore = idempotencyStore;
+        this.pricing = pricing;
+        this.addresses = addresses;
+        this.priceIndex = priceIndex;
+        this.kitchenCapacity = kitchenCapacity;
+        this.menuCache = menuCache;
+        this.directory = directory;
+        this.openHours = openHours;
+        this.searchIndex = searchIndex;
+        this.singleFlight = singleFlight;
+        this.catalogSnapshot = catalogSnapshot;
+        this.menuImporter = menuImporter;
+        this.orderExporter = orderExporter;
     }
 
     public void registerRestaurant(String restName, String street1, String street2, String city, String state, String zip,
                                    String contactName, String contactEmail, String contactPhone) {
-        int addressId = repository.createAddress(street1, street2, city, state, zip);
+        int addressId = addresses.intern(street1, street2, city, state, zip);
         repository.requestRestaurantRegistration(restName, addressId, contactName, contactEmail, contactPhone);
+        directory.invalidate();
+        searchIndex.refreshRestaurant(restName);
     }
 
     public void approveRestaurant(String restName, String decision) {
         repository.setRestaurantApproval(restName, decision);
+        directory.invalidate();
+        openHours.invalidate();
+        searchIndex.refreshRestaurant(restName);
     }
 
     public void requestWithdrawal(String restName) {
         repository.requestWithdrawal(restName);
+        directory.invalidate();
     }
 
     public void resolveWithdrawal(String restName, String decision) {
         repository.setWithdrawalDecision(restName, decision);
+        directory.invalidate();
+        openHours.invalidate();
+        searchIndex.refreshRestaurant(restName);
+    }
+
+    public RestaurantDirectory.Snapshot getRestaurantDirectory(boolean includePending, boolean includeInactive,
+                                                               String city, String state, String zip, String fields) {
+        FieldProjection projection = FrontdashRepository.RESTAURANT_LIST_FIELDS.compile(fields);
+        if (projection != FrontdashRepository.RESTAURANT_LIST_FIELDS.all()) {
+            return directory.project(includePending, includeInactive, blankToNull(city), blankToNull(state),
+                    blankToNull(zip), projection);
+        }
+        return directory.get(includePending, includeInactive, blankToNull(city), blankToNull(state), blankToNull(zip));
     }
 
-    public List<Map<String, Object>> listRestaurants(boolean includePending, boolean includeInactive) {
-        return repository.listRestaurants(includePending, includeInactive);
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.strip();
     }
 
     public List<Map<String, Object>> listPendingRegistrations() {
@@ -52,113 +143,324 @@ public class FrontdashService {
 
     public void createStaff(String username, String password, String firstName, String lastName) {
         repository.createStaff(username, password, firstName, lastName);
+        staffVersion.incrementAndGet();
     }
 
     public void setStaffStatus(String username, String status) {
         repository.setStaffStatus(username, status);
+        staffVersion.incrementAndGet();
     }
 
-    public List<Map<String, Object>> listStaff() {
-        return repository.listStaff();
+    public List<StaffListing> listStaff() {
+        return singleFlight.run("staff", staffVersion.get(), repository::listStaff);
     }
 
     public void createDriver(String driverName) {
         repository.createDriver(driverName);
+        driverVersion.incrementAndGet();
     }
 
     public void setDriverStatus(String driverName, String status) {
         repository.setDriverStatus(driverName, status);
+        driverVersion.incrementAndGet();
     }
 
-    public List<Map<String, Object>> listDrivers() {
-        return repository.listDrivers();
+    public List<DriverListing> listDrivers() {
+        return singleFlight.run("drivers", driverVersion.get(), repository::listDrivers);
     }
 
-    public CreateOrderResponse createOrder(CreateOrderRequest request) {
-        double tipAmount = request.getTipAmount() == null ? 0.0 : request.getTipAmount();
+    public CreateOrderResponse createOrder(CreateOrderRequest request, String idempotencyKey) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return submitOrder(request, null);
+        }
+        if (idempotencyKey.length() > 100) {
+            throw new IllegalArgumentException("Idempotency-Key must be at most 100 characters");
+        }
 
-        List<Integer> itemIds = request.getItems().stream()
-                .map(CreateOrderRequest.OrderItem::getItemId)
-                .toList();
-        Map<Integer, Map<String, Object>> menuItems = repository.getMenuItemsForRestaurant(request.getRestName(), itemIds);
-        if (menuItems.size() != itemIds.size()) {
-            throw new IllegalArgumentException("One or more menu items are invalid for this restaurant");
+        CompletableFuture<CreateOrderResponse> mine = new CompletableFuture<>();
+        CompletableFuture<CreateOrderResponse> inFlight = idempotencyStore.claim(idempotencyKey, mine);
+        if (inFlight != null) {
+            return idempotencyStore.await(inFlight);
         }
+        try {
+            CreateOrderResponse response = findIdempotentOrder(idempotencyKey);
+            if (response == null) {
+                try {
+                    response = submitOrder(request, idempotencyKey);
+                } catch (DuplicateKeyException e) {
+                    // Another node committed this key first; hand back its order instead
+                    response = findIdempotentOrder(idempotencyKey);
+                    if (response == null) {
+                        throw e;
+                    }
+                }
+            }
+            mine.complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            idempotencyStore.forget(idempotencyKey, mine);
+            mine.completeExceptionally(e);
+            throw e;
+        }
+    }
 
-        double subtotal = 0.0;
-        Map<Integer, Double> lineSubtotals = new HashMap<>();
-        for (CreateOrderRequest.OrderItem item : request.getItems()) {
-            Map<String, Object> menuRow = menuItems.get(item.getItemId());
-            double price = ((Number) menuRow.get("itemPrice")).doubleValue();
-            double line = price * item.getQuantity();
-            lineSubtotals.put(item.getItemId(), line);
-            subtotal += line;
+    private CreateOrderResponse submitOrder(CreateOrderRequest request, String idempotencyKey) {
+        OrderDraft draft = prepareOrder(request, idempotencyKey);
+        kitchenCapacity.acquire(draft.restName());
+        CreateOrderResponse response;
+        try {
+            try {
+                response = write(draft);
+            } catch (MenuChangedException e) {
+                // This node's prices were stale (menu edited elsewhere): reload them and price the order once more
+                priceIndex.invalidate(draft.restName());
+                response = write(prepareOrder(request, idempotencyKey));
+            }
+        } catch (RuntimeException e) {
+            // Nothing was written: a draft that timed out in the pipeline is withdrawn, never committed later
+            kitchenCapacity.release(draft.restName());
+            throw e;
         }
+        kitchenCapacity.committed(draft.restName());
+        orderVersion.incrementAndGet();
+        return response;
+    }
 
-        int orderNumber = repository.createOrderWithTotals(request.getRestName(), roundCurrency(subtotal), roundCurrency(tipAmount));
+    private CreateOrderResponse write(OrderDraft draft) {
+        if (ingestionPipeline.isEnabled()) {
+            return ingestionPipeline.submit(draft);
+        }
+        return orderWriter.write(draft);
+    }
 
-        for (CreateOrderRequest.OrderItem item : request.getItems()) {
-            double line = lineSubtotals.get(item.getItemId());
-            repository.addOrderItem(orderNumber, item.getItemId(), item.getQuantity(), roundCurrency(line));
+    private CreateOrderResponse findIdempotentOrder(String idempotencyKey) {
+        OrderIdempotency rec = repository.findIdempotentOrder(idempotencyKey);
+        if (rec == null) {
+            return null;
         }
+        return new CreateOrderResponse(rec.orderNumber(), toAmount(rec.subtotalCents()), toAmount(rec.serviceChargeCents()),
+                toAmount(rec.tipCents()), toAmount(rec.grandTotalCents()), "Order created");
+    }
 
-        CreateOrderRequest.DeliveryDetails delivery = request.getDelivery();
-        int addressId = repository.createAddress(
-                delivery.getStreetAddress1(),
-                delivery.getStreetAddress2(),
-                delivery.getCity(),
-                delivery.getState(),
-                delivery.getZip()
-        );
-        repository.setOrderDeliveryAddress(orderNumber, addressId, delivery.getContactName(), delivery.getContactPhone());
+    public OrderQuoteResponse quoteOrder(OrderQuoteRequest request) {
+        RestaurantPrices menu = priceIndex.get(request.getRestName());
+        long tipCents = pricing.tipCents(request.getTipAmount());
+        long subtotalCents = 0;
+        for (CreateOrderRequest.OrderItem item : checkedItems(menu, request.getItems())) {
+            subtotalCents += pricing.lineTotalCents(menu.priceCents(menu.indexOf(item.getItemId())), item.getQuantity());
+        }
+        long serviceChargeCents = pricing.serviceChargeCents(subtotalCents);
+        long grandTotalCents = pricing.grandTotalCents(subtotalCents, serviceChargeCents, tipCents);
+        return new OrderQuoteResponse(toAmount(subtotalCents), toAmount(serviceChargeCents), toAmount(tipCents),
+                toAmount(grandTotalCents));
+    }
+
+    private OrderDraft prepareOrder(CreateOrderRequest request, String idempotencyKey) {
+        RestaurantPrices menu = priceIndex.get(request.getRestName());
+        long tipCents = pricing.tipCents(request.getTipAmount());
+        List<CreateOrderRequest.OrderItem> items = checkedItems(menu, request.getItems());
+
+        int orderNumber = orderNumbers.next();
+        long subtotalCents = 0;
+        List<OrderLine> lines = new ArrayList<>(items.size());
+        for (CreateOrderRequest.OrderItem item : items) {
+            int slot = menu.indexOf(item.getItemId());
+            long lineCents = pricing.lineTotalCents(menu.priceCents(slot), item.getQuantity());
+            lines.add(new OrderLine(orderNumber, item.getItemId(), menu.itemName(slot), menu.priceCents(slot),
+                    item.getQuantity(), lineCents));
+            subtotalCents += lineCents;
+        }
 
-        double serviceCharge = roundCurrency(subtotal * 0.0825);
-        double grandTotal = roundCurrency(subtotal + serviceCharge + tipAmount);
+        long serviceChargeCents = pricing.serviceChargeCents(subtotalCents);
+        long grandTotalCents = pricing.grandTotalCents(subtotalCents, serviceChargeCents, tipCents);
 
-        return new CreateOrderResponse(orderNumber, roundCurrency(subtotal), serviceCharge, roundCurrency(tipAmount), grandTotal, "Order created");
+        return new OrderDraft(orderNumber, request.getRestName(), menu.menuVersion(), subtotalCents, serviceChargeCents,
+                tipCents, grandTotalCents, lines, request.getDelivery(), idempotencyKey);
+    }
+
+    private List<CreateOrderRequest.OrderItem> checkedItems(RestaurantPrices menu, List<CreateOrderRequest.OrderItem> items) {
+        Set<Integer> seen = new HashSet<>();
+        for (CreateOrderRequest.OrderItem item : items) {
+            if (item.getItemId() == null || !seen.add(item.getItemId())) {
+                throw new IllegalArgumentException("One or more menu items are invalid for this restaurant");
+            }
+            int slot = menu.indexOf(item.getItemId());
+            if (slot < 0) {
+                throw new IllegalArgumentException("One or more menu items are invalid for this restaurant");
+            }
+            if (!menu.isAvailable(slot)) {
+                throw new IllegalArgumentException("One or more menu items are currently unavailable");
+            }
+        }
+        return items;
+    }
+
+    public void setKitchenCapacity(String restName, Integer maxInProgressOrders) {
+        kitchenCapacity.setCapacity(restName, maxInProgressOrders);
+    }
+
+    public Map<String, Object> getKitchenCapacity(String restName) {
+        return Map.of(
+                "restName", restName,
+                "maxInProgressOrders", kitchenCapacity.capacityFor(restName),
+                "inProgressOrders", kitchenCapacity.inProgress(restName)
+        );
     }
 
     public void assignDriver(int orderNumber, String driverName) {
         repository.assignDriver(orderNumber, driverName);
+        // Assignment also flips the driver's availability
+        orderVersion.incrementAndGet();
+        driverVersion.incrementAndGet();
     }
 
     public void setDelivery(int orderNumber, LocalDate date, LocalTime time) {
         repository.setDeliveryTime(orderNumber, Date.valueOf(date), Time.valueOf(time));
+        orderVersion.incrementAndGet();
+    }
+
+    public OrderPage listOrders(OrderFilter filter, Integer cursor, Integer limit, String fields) {
+        FieldProjection projection = FrontdashRepository.ORDER_LIST_FIELDS.compile(fields);
+        int pageSize = limit == null ? DEFAULT_ORDER_PAGE : limit;
+        if (pageSize < 1 || pageSize > MAX_ORDER_PAGE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_ORDER_PAGE);
+        }
+        if (filter.status() != null && !ORDER_STATUSES.contains(filter.status())) {
+            throw new IllegalArgumentException("Unknown order status: " + filter.status());
+        }
+        checkIndexedFilter(filter);
+        // Dashboards polling the same page share one query; stats stay under a single "orders" key
+        long version = orderVersion.get();
+        return singleFlight.run("orders", filter + "|" + cursor + "|" + pageSize + "|" + projection + "|" + version,
+                () -> repository.listOrders(filter, cursor, pageSize, projection));
     }
 
-    public List<Map<String, Object>> listOrders() {
-        return repository.listOrders();
+    /**
+     * Accepts only filter combinations that an Orders index answers in orderNumber order: status,
+     * restName and driverName alone, status with restName or driverName, or a bounded date range on
+     * its own. A date range cannot be read in orderNumber order, so its pages cost as much as the
+     * orders inside the range; the span cap keeps that bounded.
+     */
+    private static void checkIndexedFilter(OrderFilter filter) {
+        if (filter.restName() != null && filter.driverName() != null) {
+            throw new IllegalArgumentException("restName and driverName cannot be combined");
+        }
+        if (filter.from() == null && filter.to() == null) {
+            return;
+        }
+        if (filter.status() != null || filter.restName() != null || filter.driverName() != null) {
+            throw new IllegalArgumentException("from/to cannot be combined with other filters");
+        }
+        if (filter.from() == null || filter.to() == null) {
+            throw new IllegalArgumentException("from and to must be given together");
+        }
+        if (filter.from().isAfter(filter.to())) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        if (filter.from().plusDays(MAX_ORDER_DATE_SPAN_DAYS).isBefore(filter.to())) {
+            throw new IllegalArgumentException("from/to may span at most " + MAX_ORDER_DATE_SPAN_DAYS + " days");
+        }
+    }
+
+    public OrderExporter.Export exportOrders(String format, LocalDate from, LocalDate to) {
+        return orderExporter.open(OrderExporter.Format.fromParam(format), from, to);
     }
 
     public void updateMenuItem(String restName, int itemId, String name, String desc, double price, String isAvailable) {
         repository.updateMenuItem(restName, itemId, name, desc, price, isAvailable);
+        menuChanged(restName);
     }
 
     public int createMenuItem(String restName, String name, String desc, double price, String isAvailable) {
-        return repository.createMenuItem(restName, name, desc, price, isAvailable);
+        int itemId = repository.createMenuItem(restName, name, desc, price, isAvailable);
+        menuChanged(restName);
+        return itemId;
     }
 
     public void deleteMenuItem(String restName, int itemId) {
         repository.deleteMenuItem(restName, itemId);
+        menuChanged(restName);
+    }
+
+    public MenuImportResponse importMenu(String restName, String contentType, InputStream body) throws IOException {
+        MenuImporter.Format format = MenuImporter.Format.fromContentType(contentType);
+        try {
+            return menuImporter.importMenu(restName, format, body);
+        } finally {
+            // Chunks committed before a failure are already live
+            menuChanged(restName);
+        }
+    }
+
+    private void menuChanged(String restName) {
+        priceIndex.invalidate(restName);
+        menuCache.invalidate(restName);
+        searchIndex.refreshRestaurant(restName);
     }
 
     public void updateHours(String restName, String dayOfWeek, String openTime, String closeTime, String isClosed) {
         repository.updateHours(restName, dayOfWeek, openTime, closeTime, isClosed);
+        openHours.refresh(restName);
+    }
+
+    public List<String> listOpenRestaurants(LocalDateTime at) {
+        return openHours.openAt(at);
+    }
+
+    public List<CatalogSearchIndex.Hit> search(String query, int limit) {
+        return searchIndex.search(query, Math.min(limit, MAX_SEARCH_RESULTS));
+    }
+
+    public Map<String, Object> getOrderSummary(int orderNumber, String fields) {
+        return repository.getOrderSummary(orderNumber, FrontdashRepository.ORDER_SUMMARY_FIELDS.compile(fields));
+    }
+
+    public Map<Integer, Map<String, Object>> getOrderSummaries(List<Integer> orderNumbers, String fields) {
+        FieldProjection projection = FrontdashRepository.ORDER_SUMMARY_FIELDS.compile(fields);
+        Set<Integer> distinct = new LinkedHashSet<>(orderNumbers);
+        if (distinct.size() > MAX_SUMMARIES_PER_REQUEST) {
+            throw new IllegalArgumentException("At most " + MAX_SUMMARIES_PER_REQUEST + " orders per request");
+        }
+        return repository.getOrderSummaries(distinct, projection);
+    }
+
+    public Map<String, List<MenuEntry>> getMenus(List<String> restNames) {
+        Set<String> distinct = new LinkedHashSet<>(restNames);
+        if (distinct.size() > MAX_MENUS_PER_REQUEST) {
+            throw new IllegalArgumentException("At most " + MAX_MENUS_PER_REQUEST + " restaurants per request");
+        }
+        return menuCache.getAll(distinct);
+    }
+
+    // Restaurant.menuVersion / hoursVersion: bumped by every menu or hours write through any node, so the ETags built
+    // from them change even for edits this node never saw. A restaurant that does not exist has no menu or hours yet.
+    public long getMenuVersion(String restName) {
+        Long version = repository.getMenuVersion(restName);
+        return version == null ? 0 : version;
+    }
+
+    public long getHoursVersion(String restName) {
+        Long version = repository.getHoursVersion(restName);
+        return version == null ? 0 : version;
     }
 
-    public Map<String, Object> getOrderSummary(int orderNumber) {
-        return repository.getOrderSummary(orderNumber);
+    public List<MenuEntry> getMenu(String restName, long menuVersion) {
+        List<MenuEntry> menu =
+                singleFlight.run("menu:" + restName, menuVersion, () -> menuCache.get(restName, menuVersion));
+        catalogSnapshot.menuServed();
+        return menu;
     }
 
-    public List<Map<String, Object>> getMenu(String restName) {
-        return repository.getMenuByRestaurant(restName);
+    public Map<String, Object> getMenuCacheStats() {
+        return menuCache.stats();
     }
 
-    public List<Map<String, Object>> getHours(String restName) {
-        return repository.getHoursByRestaurant(restName);
+    public List<Map<String, Object>> getSingleFlightStats() {
+        return singleFlight.stats();
     }
 
-    private double roundCurrency(double amount) {
-        return BigDecimal.valueOf(amount).setScale(2, RoundingMode.HALF_UP).doubleValue();
+    public List<HoursEntry> getHours(String restName, long hoursVersion) {
+        return singleFlight.run("hours:" + restName, hoursVersion,
+                () -> repository.getHoursByRestaurant(restName));
     }
 }
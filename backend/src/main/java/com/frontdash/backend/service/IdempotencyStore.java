@@ -0,0 +1,128 @@
+package com.frontdash.backend.service;
+
+import com.frontdash.backend.dto.CreateOrderResponse;
+import com.frontdash.backend.repository.FrontdashRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Bounded, time-expiring memory of recent Idempotency-Key submissions on this node. The first
+ * request for a key claims it; duplicates arriving while it is in flight wait on the same result
+ * instead of writing a second order. Anything evicted or written by another node is still caught
+ * by the OrderIdempotency table, whose rows are purged on the same TTL.
+ */
+@Component
+public class IdempotencyStore {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyStore.class);
+    private static final int PURGE_BATCH = 1000;
+
+    private final FrontdashRepository repository;
+    private final long ttlMinutes;
+    private final long ttlMillis;
+    private final long waitTimeoutMillis;
+    private final Map<String, Entry> entries;
+
+    public IdempotencyStore(
+            FrontdashRepository repository,
+            @Value("${frontdash.orders.idempotency.ttl-minutes:60}") long ttlMinutes,
+            @Value("${frontdash.orders.idempotency.max-entries:10000}") int maxEntries,
+            @Value("${frontdash.orders.group-commit.wait-timeout-ms:10000}") long waitTimeoutMillis) {
+        this.repository = repository;
+        this.ttlMinutes = ttlMinutes;
+        this.ttlMillis = TimeUnit.MINUTES.toMillis(ttlMinutes);
+        this.waitTimeoutMillis = waitTimeoutMillis;
+        int capacity = Math.max(1, maxEntries);
+        this.entries = new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Registers {@code mine} as the result for {@code key}, or returns the result already
+     * registered by an earlier request that has not expired.
+     */
+    public synchronized CompletableFuture<CreateOrderResponse> claim(String key, CompletableFuture<CreateOrderResponse> mine) {
+        long now = System.currentTimeMillis();
+        purgeExpired(now);
+        Entry existing = entries.get(key);
+        if (existing != null) {
+            return existing.result();
+        }
+        entries.put(key, new Entry(mine, now + ttlMillis));
+        return null;
+    }
+
+    // A failed attempt must not pin the key, otherwise the client could never retry it
+    public synchronized void forget(String key, CompletableFuture<CreateOrderResponse> mine) {
+        Entry existing = entries.get(key);
+        if (existing != null && existing.result() == mine) {
+            entries.remove(key);
+        }
+    }
+
+    public CreateOrderResponse await(CompletableFuture<CreateOrderResponse> inFlight) {
+        try {
+            return inFlight.get(waitTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new OrderIngestionException("Original order is still being processed", 1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OrderIngestionException("Order submission interrupted", 1);
+        }
+    }
+
+    // Small batches keep each DELETE's row locks short next to concurrent order inserts
+    @Scheduled(initialDelayString = "${frontdash.orders.idempotency.purge-ms:300000}",
+            fixedDelayString = "${frontdash.orders.idempotency.purge-ms:300000}")
+    public void purgeExpiredKeys() {
+        try {
+            int purged = 0;
+            int deleted;
+            do {
+                deleted = repository.purgeIdempotencyKeys(ttlMinutes, PURGE_BATCH);
+                purged += deleted;
+            } while (deleted == PURGE_BATCH);
+            if (purged > 0) {
+                log.info("Purged {} idempotency keys older than {} minutes", purged, ttlMinutes);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Idempotency key purge failed, retrying next interval", e);
+        }
+    }
+
+    private void purgeExpired(long now) {
+        // Insertion order equals expiry order because every entry gets the same TTL
+        Iterator<Entry> it = entries.values().iterator();
+        while (it.hasNext()) {
+            Entry entry = it.next();
+            if (entry.expiresAt() > now) {
+                break;
+            }
+            if (entry.result().isDone()) {
+                it.remove();
+            }
+        }
+    }
+
+    private record Entry(CompletableFuture<CreateOrderResponse> result, long expiresAt) {}
+}
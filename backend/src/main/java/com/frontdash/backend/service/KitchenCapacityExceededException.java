@@ -0,0 +1,18 @@
+package com.frontdash.backend.service;
+
+/**
+ * Raised when a restaurant already has as many 'In Progress' orders as its kitchen accepts.
+ */
+public class KitchenCapacityExceededException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public KitchenCapacityExceededException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,134 @@
+package com.frontdash.backend.service;
+
+import com.frontdash.backend.repository.FrontdashRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Caps the number of 'In Progress' orders each restaurant can have outstanding. Intake is checked
+ * against an in-memory counter per restaurant, so an over-capacity restaurant is turned away
+ * before any database work. Counters drift as orders move on (driver assigned, delivered) and are
+ * periodically corrected from the Orders table, which also picks up capacity changes made on other nodes.
+ */
+@Component
+public class KitchenCapacityGuard {
+
+    private static final Logger log = LoggerFactory.getLogger(KitchenCapacityGuard.class);
+    private static final int[] NOTHING_SAMPLED = {0, 0};
+
+    private final FrontdashRepository repository;
+    private final int defaultCapacity;
+    private final long retryAfterSeconds;
+    private final Map<String, Load> inProgress = new ConcurrentHashMap<>();
+    private final Map<String, Integer> capacities = new ConcurrentHashMap<>();
+
+    public KitchenCapacityGuard(
+            FrontdashRepository repository,
+            @Value("${frontdash.kitchen.default-capacity:0}") int defaultCapacity,
+            @Value("${frontdash.kitchen.retry-after-seconds:30}") long retryAfterSeconds) {
+        this.repository = repository;
+        this.defaultCapacity = defaultCapacity;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public void acquire(String restName) {
+        int limit = capacityFor(restName);
+        Load load = inProgress.computeIfAbsent(restName, name -> new Load());
+        while (true) {
+            int current = load.outstanding.get();
+            if (limit > 0 && current >= limit) {
+                throw new KitchenCapacityExceededException(
+                        restName + " is not taking more orders right now, please try again shortly", retryAfterSeconds);
+            }
+            if (load.outstanding.compareAndSet(current, current + 1)) {
+                load.uncommitted.incrementAndGet();
+                return;
+            }
+        }
+    }
+
+    // The acquired order is now in the Orders table, where reconcile() will count it
+    public void committed(String restName) {
+        Load load = inProgress.get(restName);
+        if (load != null) {
+            load.uncommitted.updateAndGet(n -> Math.max(0, n - 1));
+        }
+    }
+
+    // Undo an acquire whose order was never written
+    public void release(String restName) {
+        Load load = inProgress.get(restName);
+        if (load != null) {
+            load.uncommitted.updateAndGet(n -> Math.max(0, n - 1));
+            load.outstanding.updateAndGet(n -> Math.max(0, n - 1));
+        }
+    }
+
+    /** Effective limit for a restaurant; 0 means unlimited. */
+    public int capacityFor(String restName) {
+        return capacities.getOrDefault(restName, defaultCapacity);
+    }
+
+    public int inProgress(String restName) {
+        Load load = inProgress.get(restName);
+        return load == null ? 0 : load.outstanding.get();
+    }
+
+    public void setCapacity(String restName, Integer capacity) {
+        if (!repository.setKitchenCapacity(restName, capacity)) {
+            throw new IllegalArgumentException("Unknown restaurant: " + restName);
+        }
+        if (capacity == null) {
+            capacities.remove(restName);
+        } else {
+            capacities.put(restName, capacity);
+        }
+    }
+
+    /**
+     * Moves each counter to the database count plus the orders acquired here but not yet committed.
+     * The correction is applied as a delta against values sampled before the query, so acquires and
+     * releases that race with the query are kept rather than overwritten.
+     */
+    @Scheduled(initialDelay = 0, fixedDelayString = "${frontdash.kitchen.reconcile-ms:15000}")
+    public void reconcile() {
+        try {
+            Map<String, int[]> sampled = new HashMap<>();
+            inProgress.forEach((restName, load) ->
+                    sampled.put(restName, new int[]{load.outstanding.get(), load.uncommitted.get()}));
+            Map<String, Integer> counts = repository.countInProgressOrdersByRestaurant();
+
+            Set<String> restNames = new HashSet<>(sampled.keySet());
+            restNames.addAll(counts.keySet());
+            for (String restName : restNames) {
+                int[] before = sampled.getOrDefault(restName, NOTHING_SAMPLED);
+                int target = counts.getOrDefault(restName, 0) + before[1];
+                inProgress.computeIfAbsent(restName, name -> new Load())
+                        .outstanding.updateAndGet(n -> Math.max(0, n + target - before[0]));
+            }
+
+            Map<String, Integer> configured = repository.getKitchenCapacities();
+            capacities.keySet().retainAll(configured.keySet());
+            capacities.putAll(configured);
+        } catch (RuntimeException e) {
+            log.warn("Kitchen capacity reconciliation failed, keeping current counters", e);
+        }
+    }
+
+    private static final class Load {
+        // Orders counted against the capacity, committed or not
+        final AtomicInteger outstanding = new AtomicInteger();
+        // Acquired on this node but not yet committed or released, so invisible to the database count
+        final AtomicInteger uncommitted = new AtomicInteger();
+    }
+}
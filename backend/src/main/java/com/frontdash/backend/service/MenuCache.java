@@ -0,0 +1,163 @@
+package com.frontdash.backend.service;
+
+import com.frontdash.backend.repository.FrontdashRepository;
+import com.frontdash.backend.repository.FrontdashRepository.MenuEntry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded LRU of the customer-facing menu per restaurant, so a restaurant page view is served
+ * without the RestaurantToMenu/MenuItems join. Each entry remembers the Restaurant.menuVersion it
+ * was loaded under. A single-menu read passes the version it built its ETag from and only gets an
+ * entry loaded under that version, so the body never lags behind the ETag, whichever node made the
+ * edit. Batch reads carry no version; for them entries also expire after a TTL, which bounds how
+ * long a menu edited through another node is served stale.
+ */
+@Component
+public class MenuCache {
+
+    // Version of an entry whose menuVersion was not read (batch loads); never matches a versioned read
+    static final long UNVERSIONED = -1;
+
+    private final FrontdashRepository repository;
+    private final int capacity;
+    private final long ttlNanos;
+    private final Map<String, Entry> menus;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public MenuCache(FrontdashRepository repository,
+                     @Value("${frontdash.menu.cache-size:500}") int cacheSize,
+                     @Value("${frontdash.menu.cache-ttl-ms:60000}") long ttlMillis) {
+        this.repository = repository;
+        this.capacity = Math.max(1, cacheSize);
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, ttlMillis));
+        this.menus = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > capacity) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /** The menu as of {@code menuVersion}, read from the database by the caller before this call. */
+    public List<MenuEntry> get(String restName, long menuVersion) {
+        synchronized (menus) {
+            Entry cached = menus.get(restName);
+            if (isFresh(cached) && cached.version() == menuVersion) {
+                hits.increment();
+                return cached.rows();
+            }
+        }
+        misses.increment();
+        List<MenuEntry> loaded = freeze(repository.getMenuByRestaurant(restName));
+        publish(restName, menuVersion, loaded);
+        return loaded;
+    }
+
+    /** Menus for several restaurants in request order; all misses are loaded with one query. */
+    public Map<String, List<MenuEntry>> getAll(Collection<String> restNames) {
+        Map<String, List<MenuEntry>> result = new LinkedHashMap<>();
+        List<String> missing = new ArrayList<>();
+        synchronized (menus) {
+            for (String restName : restNames) {
+                Entry cached = menus.get(restName);
+                if (isFresh(cached)) {
+                    result.put(restName, cached.rows());
+                } else {
+                    result.put(restName, null);
+                    missing.add(restName);
+                }
+            }
+        }
+        hits.add(result.size() - missing.size());
+        if (missing.isEmpty()) {
+            return result;
+        }
+        misses.add(missing.size());
+        Map<String, List<MenuEntry>> loaded = repository.getMenusByRestaurants(missing);
+        for (String restName : missing) {
+            List<MenuEntry> rows = freeze(loaded.getOrDefault(restName, List.of()));
+            publish(restName, UNVERSIONED, rows);
+            result.put(restName, rows);
+        }
+        return result;
+    }
+
+    // Loaded under the version read before the query; an edit during the load leaves the entry behind the
+    // database, so the next versioned read replaces it. A batch load never displaces a versioned entry.
+    private void publish(String restName, long version, List<MenuEntry> rows) {
+        synchronized (menus) {
+            Entry current = menus.get(restName);
+            if (current == null || !isFresh(current) || current.version() <= version) {
+                menus.put(restName, new Entry(version, rows, System.nanoTime()));
+            }
+        }
+    }
+
+    /** Entries that have not expired, for the catalog snapshot file. */
+    Map<String, Entry> currentEntries() {
+        Map<String, Entry> current = new HashMap<>();
+        synchronized (menus) {
+            menus.forEach((restName, entry) -> {
+                if (isFresh(entry)) {
+                    current.put(restName, entry);
+                }
+            });
+        }
+        return current;
+    }
+
+    public void preload(String restName, long menuVersion, List<MenuEntry> rows) {
+        publish(restName, menuVersion, freeze(rows));
+    }
+
+    public void invalidate(String restName) {
+        synchronized (menus) {
+            menus.remove(restName);
+        }
+    }
+
+    public Map<String, Object> stats() {
+        int size;
+        synchronized (menus) {
+            size = menus.size();
+        }
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long lookups = hitCount + missCount;
+        return Map.of(
+                "size", size,
+                "capacity", capacity,
+                "hits", hitCount,
+                "misses", missCount,
+                "evictions", evictions.sum(),
+                "hitRatio", lookups == 0 ? 0.0 : (double) hitCount / lookups
+        );
+    }
+
+    private boolean isFresh(Entry entry) {
+        return entry != null && System.nanoTime() - entry.loadedAt() < ttlNanos;
+    }
+
+    // Cached lists are shared between requests, so nothing downstream may modify them
+    private static List<MenuEntry> freeze(List<MenuEntry> rows) {
+        return List.copyOf(rows);
+    }
+
+    record Entry(long version, List<MenuEntry> rows, long loadedAt) {}
+}
@@ -0,0 +1,20 @@
+package com.frontdash.backend.service;
+
+/**
+ * Raised inside the order transaction when a line no longer matches the restaurant's menu in the
+ * database (repriced, renamed, unavailable or removed), typically because the menu was edited
+ * through another node after this node cached its prices.
+ */
+public class MenuChangedException extends RuntimeException {
+
+    private final String restName;
+
+    public MenuChangedException(String restName) {
+        super("The menu of " + restName + " changed while the order was placed, please review and retry");
+        this.restName = restName;
+    }
+
+    public String getRestName() {
+        return restName;
+    }
+}
@@ -0,0 +1,393 @@
+package com.frontdash.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.frontdash.backend.dto.MenuImportResponse;
+import com.frontdash.backend.dto.MenuImportResponse.RowError;
+import com.frontdash.backend.repository.FrontdashRepository;
+import com.frontdash.backend.repository.FrontdashRepository.NewMenuItem;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Streams a CSV or NDJSON menu into MenuItems/RestaurantToMenu. Records are parsed one at a time
+ * and written in chunks, each chunk in its own transaction as multi-row INSERTs, so memory stays
+ * flat however large the upload is. Bad rows are reported by line and skipped; a chunk the
+ * database rejects is reported row by row and the import carries on with the next one.
+ */
+@Component
+public class MenuImporter {
+
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    // Longest record buffered; an unterminated quote or runaway line is cut off here instead of eating the upload
+    static final int MAX_RECORD_CHARS = 64 * 1024;
+    private static final BigDecimal MAX_PRICE = new BigDecimal("999999.99");
+
+    public enum Format {
+        CSV, NDJSON;
+
+        public static Format fromContentType(String contentType) {
+            String type = contentType == null ? "" : contentType.toLowerCase(Locale.ROOT);
+            if (type.contains("csv")) {
+                return CSV;
+            }
+            if (type.contains("ndjson") || type.contains("jsonl") || type.contains("json-seq")) {
+                return NDJSON;
+            }
+            throw new IllegalArgumentException("Menu import expects text/csv or application/x-ndjson");
+        }
+    }
+
+    private final FrontdashRepository repository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate chunkTx;
+    private final int chunkSize;
+
+    public MenuImporter(FrontdashRepository repository, ObjectMapper objectMapper,
+                        PlatformTransactionManager transactionManager,
+                        @Value("${frontdash.menu.import.chunk-size:500}") int chunkSize) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.chunkTx = new TransactionTemplate(transactionManager);
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    public MenuImportResponse importMenu(String restName, Format format, InputStream body) throws IOException {
+        if (!repository.restaurantExists(restName)) {
+            throw new IllegalArgumentException("Unknown restaurant: " + restName);
+        }
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        RecordSource source = format == Format.CSV ? new CsvSource(reader) : new NdjsonSource(reader, objectMapper);
+        Progress progress = new Progress();
+        List<PendingRow> chunk = new ArrayList<>(chunkSize);
+
+        InputRow record;
+        while ((record = source.next(progress)) != null) {
+            try {
+                chunk.add(new PendingRow(record.line(), toItem(record.fields())));
+            } catch (IllegalArgumentException e) {
+                progress.fail(record.line(), e.getMessage());
+                continue;
+            }
+            if (chunk.size() == chunkSize) {
+                flush(restName, chunk, progress);
+            }
+        }
+        flush(restName, chunk, progress);
+        return new MenuImportResponse(restName, progress.imported, progress.failed, progress.errors,
+                progress.failed > progress.errors.size());
+    }
+
+    private void flush(String restName, List<PendingRow> chunk, Progress progress) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        List<NewMenuItem> items = new ArrayList<>(chunk.size());
+        for (PendingRow row : chunk) {
+            items.add(row.item());
+        }
+        try {
+            chunkTx.executeWithoutResult(status -> repository.createMenuItems(restName, items));
+            progress.imported += chunk.size();
+        } catch (RuntimeException e) {
+            String reason = "Not saved: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+            for (PendingRow row : chunk) {
+                progress.fail(row.line(), reason);
+            }
+        }
+        chunk.clear();
+    }
+
+    static NewMenuItem toItem(Map<String, String> fields) {
+        String name = trimToNull(fields.get("itemname"));
+        if (name == null) {
+            throw new IllegalArgumentException("itemName is required");
+        }
+        if (name.length() > 100) {
+            throw new IllegalArgumentException("itemName is longer than 100 characters");
+        }
+        String description = trimToNull(fields.get("itemdescription"));
+        if (description != null && description.length() > 255) {
+            throw new IllegalArgumentException("itemDescription is longer than 255 characters");
+        }
+        String priceText = trimToNull(fields.get("itemprice"));
+        if (priceText == null) {
+            throw new IllegalArgumentException("itemPrice is required");
+        }
+        BigDecimal price;
+        try {
+            price = new BigDecimal(priceText).setScale(2, RoundingMode.UNNECESSARY);
+        } catch (NumberFormatException | ArithmeticException e) {
+            throw new IllegalArgumentException("itemPrice must be an amount with at most 2 decimals: " + priceText);
+        }
+        if (price.signum() < 0 || price.compareTo(MAX_PRICE) > 0) {
+            throw new IllegalArgumentException("itemPrice is out of range: " + priceText);
+        }
+        String available = trimToNull(fields.get("isavailable"));
+        available = available == null ? "Y" : available.toUpperCase(Locale.ROOT);
+        if (!available.equals("Y") && !available.equals("N")) {
+            throw new IllegalArgumentException("isAvailable must be Y or N");
+        }
+        return new NewMenuItem(name, description, price, available);
+    }
+
+    private static String trimToNull(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.strip();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    private record PendingRow(long line, NewMenuItem item) {}
+
+    /** One parsed input record; field names are lower-cased. */
+    private record InputRow(long line, Map<String, String> fields) {}
+
+    private interface RecordSource {
+        /** Next well-formed record, or null at end of input; malformed ones are reported to progress. */
+        InputRow next(Progress progress) throws IOException;
+    }
+
+    private static final class Progress {
+        private int imported;
+        private int failed;
+        private final List<RowError> errors = new ArrayList<>();
+
+        void fail(long line, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new RowError(line, message));
+            }
+        }
+    }
+
+    private static final class NdjsonSource implements RecordSource {
+        private final BufferedReader reader;
+        private final ObjectMapper objectMapper;
+        private long line;
+        // Set when the line just read went over MAX_RECORD_CHARS; its text was dropped
+        private boolean oversized;
+
+        NdjsonSource(BufferedReader reader, ObjectMapper objectMapper) {
+            this.reader = reader;
+            this.objectMapper = objectMapper;
+        }
+
+        @Override
+        public InputRow next(Progress progress) throws IOException {
+            String text;
+            while ((text = readLine()) != null) {
+                line++;
+                if (oversized) {
+                    progress.fail(line, "Line is longer than " + MAX_RECORD_CHARS + " characters");
+                    continue;
+                }
+                if (text.isBlank()) {
+                    continue;
+                }
+                JsonNode node;
+                try {
+                    node = objectMapper.readTree(text);
+                } catch (JsonProcessingException e) {
+                    progress.fail(line, "Not valid JSON");
+                    continue;
+                }
+                if (!node.isObject()) {
+                    progress.fail(line, "Expected a JSON object");
+                    continue;
+                }
+                Map<String, String> fields = new HashMap<>();
+                node.fields().forEachRemaining(field -> {
+                    JsonNode value = field.getValue();
+                    fields.put(field.getKey().toLowerCase(Locale.ROOT), value.isNull() ? null : value.asText());
+                });
+                return new InputRow(line, fields);
+            }
+            return null;
+        }
+
+        // Like BufferedReader.readLine, but a line over the cap is skipped to its end rather than buffered
+        private String readLine() throws IOException {
+            StringBuilder text = new StringBuilder();
+            oversized = false;
+            int c;
+            while ((c = reader.read()) != -1) {
+                if (c == '\n') {
+                    break;
+                }
+                if (c == '\r') {
+                    reader.mark(1);
+                    if (reader.read() != '\n') {
+                        reader.reset();
+                    }
+                    break;
+                }
+                if (oversized) {
+                    continue;
+                }
+                if (text.length() == MAX_RECORD_CHARS) {
+                    oversized = true;
+                    text.setLength(0);
+                } else {
+                    text.append((char) c);
+                }
+            }
+            return c == -1 && text.isEmpty() && !oversized ? null : text.toString();
+        }
+    }
+
+    /** RFC 4180 CSV with a header row; quoted fields may contain commas, doubled quotes and newlines. */
+    private static final class CsvSource implements RecordSource {
+        private final BufferedReader reader;
+        private List<String> header;
+        private long line = 1;
+        private boolean eof;
+        // Set when the record just read went over MAX_RECORD_CHARS; its fields were dropped
+        private boolean oversized;
+
+        CsvSource(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public InputRow next(Progress progress) throws IOException {
+            if (header == null) {
+                List<String> names = readRecord();
+                if (names == null) {
+                    return null;
+                }
+                if (oversized) {
+                    throw new IllegalArgumentException("CSV header is longer than " + MAX_RECORD_CHARS + " characters");
+                }
+                header = new ArrayList<>(names.size());
+                for (String name : names) {
+                    header.add(name.replace("\uFEFF", "").strip().toLowerCase(Locale.ROOT));
+                }
+                if (!header.contains("itemname") || !header.contains("itemprice")) {
+                    throw new IllegalArgumentException("CSV header must include itemName and itemPrice columns");
+                }
+            }
+            while (true) {
+                long start = line;
+                List<String> values = readRecord();
+                if (values == null) {
+                    return null;
+                }
+                if (oversized) {
+                    progress.fail(start, "Record is longer than " + MAX_RECORD_CHARS + " characters");
+                    continue;
+                }
+                if (values.size() == 1 && values.get(0).isBlank()) {
+                    continue;
+                }
+                if (values.size() > header.size()) {
+                    progress.fail(start, "Expected " + header.size() + " columns, found " + values.size());
+                    continue;
+                }
+                Map<String, String> fields = new HashMap<>();
+                for (int i = 0; i < values.size(); i++) {
+                    fields.put(header.get(i), values.get(i));
+                }
+                return new InputRow(start, fields);
+            }
+        }
+
+        private List<String> readRecord() throws IOException {
+            if (eof) {
+                return null;
+            }
+            oversized = false;
+            List<String> values = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            int length = 0;
+            boolean quoted = false;
+            boolean any = false;
+            while (true) {
+                int c = reader.read();
+                if (c != -1 && ++length > MAX_RECORD_CHARS) {
+                    skipPhysicalLine(c);
+                    oversized = true;
+                    return List.of();
+                }
+                if (c == -1) {
+                    eof = true;
+                    if (!any) {
+                        return null;
+                    }
+                    values.add(field.toString());
+                    return values;
+                }
+                any = true;
+                if (quoted) {
+                    if (c == '"') {
+                        reader.mark(1);
+                        if (reader.read() == '"') {
+                            field.append('"');
+                        } else {
+                            reader.reset();
+                            quoted = false;
+                        }
+                    } else {
+                        if (c == '\n') {
+                            line++;
+                        }
+                        field.append((char) c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    values.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n' || c == '\r') {
+                    if (c == '\r') {
+                        reader.mark(1);
+                        if (reader.read() != '\n') {
+                            reader.reset();
+                        }
+                    }
+                    line++;
+                    values.add(field.toString());
+                    return values;
+                } else {
+                    field.append((char) c);
+                }
+            }
+        }
+
+        // Quoting is ignored here: after a runaway quoted field, parsing resumes at the next physical line
+        private void skipPhysicalLine(int c) throws IOException {
+            while (c != -1 && c != '\n' && c != '\r') {
+                c = reader.read();
+            }
+            if (c == -1) {
+                eof = true;
+                return;
+            }
+            if (c == '\r') {
+                reader.mark(1);
+                if (reader.read() != '\n') {
+                    reader.reset();
+                }
+            }
+            line++;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.frontdash.backend.service;
+
+import com.frontdash.backend.repository.FrontdashRepository;
+import com.frontdash.backend.repository.FrontdashRepository.MenuItemPrice;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-restaurant itemID -> price/availability lookup held as sorted primitive arrays. Loaded with
+ * one fixed-shape query the first time a restaurant is priced and dropped whenever its menu
+ * changes, so order validation and quotes are answered from memory. Edits made through other
+ * nodes are only seen once an entry expires, so each entry remembers the restaurant's menuVersion
+ * it was read at and {@link OrderWriter} compares that against the database inside the order
+ * transaction.
+ */
+@Component
+public class MenuPriceIndex {
+
+    // Never matches a stored menuVersion, so orders against an unknown restaurant are re-checked
+    static final long NO_RESTAURANT = -1;
+
+    private final FrontdashRepository repository;
+    private final long ttlNanos;
+    private final Map<String, Entry> byRestaurant = new ConcurrentHashMap<>();
+    private final Map<String, Long> generations = new ConcurrentHashMap<>();
+
+    public MenuPriceIndex(FrontdashRepository repository,
+                          @Value("${frontdash.menu.price-ttl-ms:30000}") long ttlMillis) {
+        this.repository = repository;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, ttlMillis));
+    }
+
+    public RestaurantPrices get(String restName) {
+        Entry cached = byRestaurant.get(restName);
+        long now = System.nanoTime();
+        if (cached != null && now - cached.loadedAt() < ttlNanos) {
+            return cached.prices();
+        }
+        long generation = generations.getOrDefault(restName, 0L);
+        Long menuVersion = repository.getMenuVersion(restName);
+        Entry loaded = new Entry(RestaurantPrices.of(menuVersion == null ? NO_RESTAURANT : menuVersion,
+                repository.getMenuPrices(restName)), now);
+        // Only publish if no menu change landed while we were loading
+        byRestaurant.compute(restName, (name, current) ->
+                (current == null || current == cached) && generations.getOrDefault(name, 0L) == generation
+                        ? loaded : current);
+        return loaded.prices();
+    }
+
+    public void invalidate(String restName) {
+        byRestaurant.compute(restName, (name, current) -> {
+            generations.merge(name, 1L, Long::sum);
+            return null;
+        });
+    }
+
+    private record Entry(RestaurantPrices prices, long loadedAt) {}
+
+    public static final class RestaurantPrices {
+        private final long menuVersion;
+        private final int[] itemIds;
+        private final long[] priceCents;
+        private final String[] itemNames;
+        private final boolean[] available;
+
+        private RestaurantPrices(long menuVersion, int[] itemIds, long[] priceCents, String[] itemNames,
+                                 boolean[] available) {
+            this.menuVersion = menuVersion;
+            this.itemIds = itemIds;
+            this.priceCents = priceCents;
+            this.itemNames = itemNames;
+            this.available = available;
+        }
+
+        static RestaurantPrices of(long menuVersion, List<MenuItemPrice> rows) {
+            // Rows arrive ordered by itemID, which is what the binary search relies on
+            int n = rows.size();
+            int[] ids = new int[n];
+            long[] prices = new long[n];
+            String[] names = new String[n];
+            boolean[] avail = new boolean[n];
+            for (int i = 0; i < n; i++) {
+                MenuItemPrice row = rows.get(i);
+                ids[i] = row.itemId();
+                prices[i] = row.priceCents();
+                names[i] = row.itemName();
+                avail[i] = row.available();
+            }
+            return new RestaurantPrices(menuVersion, ids, prices, names, avail);
+        }
+
+        /** Restaurant.menuVersion these prices were read at. */
+        public long menuVersion() {
+            return menuVersion;
+        }
+
+        /** Slot of the item on this menu, or a negative value when it is not on it. */
+        public int indexOf(int itemId) {
+            return Arrays.binarySearch(itemIds, itemId);
+        }
+
+        public long priceCents(int index) {
+            return priceCents[index];
+        }
+
+        public String itemName(int index) {
+            return itemNames[index];
+        }
+
+        public boolean isAvailable(int index) {
+            return available[index];
+        }
+    }
+}
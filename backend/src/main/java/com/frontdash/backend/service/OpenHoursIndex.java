@@ -0,0 +1,175 @@
+package com.frontdash.backend.service;
+
+import com.frontdash.backend.repository.FrontdashRepository;
+import com.frontdash.backend.repository.FrontdashRepository.RestaurantHours;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Weekly opening hours of every listed restaurant compiled into a minute-of-week bitset
+ * (10,080 bits, Monday 00:00 first), so "who is open at T" is one bit test per restaurant.
+ * The index is swapped copy-on-write: a single restaurant is recompiled when its hours change,
+ * and the whole index is reloaded lazily after approvals or withdrawals change who is listed.
+ * Those triggers only see this node's writes, so the index also expires after a TTL; the first
+ * query after that reloads it while concurrent queries keep answering from the previous one.
+ */
+@Component
+public class OpenHoursIndex {
+
+    static final int MINUTES_PER_DAY = 24 * 60;
+    static final int MINUTES_PER_WEEK = 7 * MINUTES_PER_DAY;
+
+    private final FrontdashRepository repository;
+    private final long ttlNanos;
+    private final AtomicBoolean reloading = new AtomicBoolean();
+    private volatile Loaded loaded;
+
+    public OpenHoursIndex(FrontdashRepository repository,
+                          @Value("${frontdash.hours.cache-ttl-ms:60000}") long ttlMillis) {
+        this.repository = repository;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, ttlMillis));
+    }
+
+    public List<String> openAt(LocalDateTime at) {
+        int minute = minuteOfWeek(at);
+        List<String> open = new ArrayList<>();
+        for (Map.Entry<String, long[]> entry : index().entrySet()) {
+            if (isSet(entry.getValue(), minute)) {
+                open.add(entry.getKey());
+            }
+        }
+        Collections.sort(open);
+        return open;
+    }
+
+    public synchronized void refresh(String restName) {
+        Loaded current = loaded;
+        if (current == null) {
+            return;
+        }
+        List<RestaurantHours> rows = repository.getListedRestaurantHours(restName);
+        Map<String, long[]> next = new HashMap<>(current.bitsets());
+        if (rows.isEmpty()) {
+            next.remove(restName);
+        } else {
+            next.put(restName, compile(rows));
+        }
+        // Keeps the original load time: a recompiled restaurant says nothing about the others
+        loaded = new Loaded(Collections.unmodifiableMap(next), current.loadedAt());
+    }
+
+    public synchronized void invalidate() {
+        loaded = null;
+    }
+
+    /** The compiled bitsets, or null when nothing is loaded; for the catalog snapshot file. */
+    public Map<String, long[]> currentBitsets() {
+        Loaded current = loaded;
+        return current == null ? null : current.bitsets();
+    }
+
+    public synchronized void preload(Map<String, long[]> bitsets) {
+        if (loaded == null) {
+            loaded = new Loaded(Map.copyOf(bitsets), System.nanoTime());
+        }
+    }
+
+    public synchronized void reload() {
+        loaded = load();
+    }
+
+    private Map<String, long[]> index() {
+        Loaded current = loaded;
+        if (current != null) {
+            if (System.nanoTime() - current.loadedAt() < ttlNanos || !reloading.compareAndSet(false, true)) {
+                return current.bitsets();
+            }
+            // Expired: this caller reloads; queries that do not take the lock keep reading the old index
+            try {
+                synchronized (this) {
+                    if (loaded == null || loaded == current) {
+                        loaded = load();
+                    }
+                    return loaded.bitsets();
+                }
+            } finally {
+                reloading.set(false);
+            }
+        }
+        synchronized (this) {
+            if (loaded == null) {
+                loaded = load();
+            }
+            return loaded.bitsets();
+        }
+    }
+
+    private Loaded load() {
+        long loadedAt = System.nanoTime();
+        Map<String, List<RestaurantHours>> grouped = new HashMap<>();
+        for (RestaurantHours row : repository.getListedRestaurantHours()) {
+            grouped.computeIfAbsent(row.restName(), name -> new ArrayList<>()).add(row);
+        }
+        Map<String, long[]> compiled = new HashMap<>(grouped.size() * 2);
+        grouped.forEach((restName, rows) -> compiled.put(restName, compile(rows)));
+        return new Loaded(Collections.unmodifiableMap(compiled), loadedAt);
+    }
+
+    private record Loaded(Map<String, long[]> bitsets, long loadedAt) {}
+
+    static long[] compile(List<RestaurantHours> rows) {
+        long[] bits = new long[(MINUTES_PER_WEEK + 63) / 64];
+        for (RestaurantHours row : rows) {
+            if (row.closed() || row.dayOfWeek() == null || row.openTime() == null || row.closeTime() == null) {
+                continue;
+            }
+            int dayStart = dayIndex(row.dayOfWeek()) * MINUTES_PER_DAY;
+            int open = minuteOfDay(row.openTime());
+            int close = minuteOfDay(row.closeTime());
+            // close <= open means the span runs past midnight (close 00:00 = end of day; equal times = all day)
+            int length = close > open ? close - open : close + MINUTES_PER_DAY - open;
+            int start = dayStart + open;
+            for (int i = 0; i < length; i++) {
+                int minute = (start + i) % MINUTES_PER_WEEK;
+                bits[minute >>> 6] |= 1L << minute;
+            }
+        }
+        return bits;
+    }
+
+    static boolean isSet(long[] bits, int minuteOfWeek) {
+        return (bits[minuteOfWeek >>> 6] & (1L << minuteOfWeek)) != 0;
+    }
+
+    static int minuteOfWeek(LocalDateTime at) {
+        return (at.getDayOfWeek().getValue() - 1) * MINUTES_PER_DAY + minuteOfDay(at.toLocalTime());
+    }
+
+    private static int minuteOfDay(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+
+    private static int dayIndex(String dayOfWeek) {
+        return switch (dayOfWeek) {
+            case "Mon" -> DayOfWeek.MONDAY.ordinal();
+            case "Tue" -> DayOfWeek.TUESDAY.ordinal();
+            case "Wed" -> DayOfWeek.WEDNESDAY.ordinal();
+            case "Thu" -> DayOfWeek.THURSDAY.ordinal();
+            case "Fri" -> DayOfWeek.FRIDAY.ordinal();
+            case "Sat" -> DayOfWeek.SATURDAY.ordinal();
+            case "Sun" -> DayOfWeek.SUNDAY.ordinal();
+            default -> throw new IllegalStateException("Unexpected dayOfWeek: " + dayOfWeek);
+        };
+    }
+}
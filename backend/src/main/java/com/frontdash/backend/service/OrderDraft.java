@@ -0,0 +1,33 @@
+package com.frontdash.backend.service;
+
+import com.frontdash.backend.dto.CreateOrderRequest;
+import com.frontdash.backend.repository.FrontdashRepository.OrderHeader;
+import com.frontdash.backend.repository.FrontdashRepository.OrderIdempotency;
+import com.frontdash.backend.repository.FrontdashRepository.OrderLine;
+
+import java.util.List;
+
+/**
+ * A validated, fully priced order that has its order number but has not been written yet.
+ */
+record OrderDraft(
+        int orderNumber,
+        String restName,
+        long menuVersion,
+        long subtotalCents,
+        long serviceChargeCents,
+        long tipCents,
+        long grandTotalCents,
+        List<OrderLine> lines,
+        CreateOrderRequest.DeliveryDetails delivery,
+        String idempotencyKey
+) {
+
+    OrderHeader header() {
+        return new OrderHeader(orderNumber, restName, subtotalCents, serviceChargeCents, tipCents, grandTotalCents);
+    }
+
+    OrderIdempotency idempotency() {
+        return new OrderIdempotency(idempotencyKey, orderNumber, subtotalCents, serviceChargeCents, tipCents, grandTotalCents);
+    }
+}
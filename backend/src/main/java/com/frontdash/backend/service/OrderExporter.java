@@ -0,0 +1,311 @@
+package com.frontdash.backend.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.frontdash.backend.repository.FrontdashRepository;
+import com.frontdash.backend.repository.FrontdashRepository.ExportedOrder;
+import com.frontdash.backend.repository.FrontdashRepository.ExportedOrderItem;
+import com.frontdash.backend.repository.FrontdashRepository.OrderExportSink;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Full order history export for finance. Rows are streamed from a forward-only MySQL result set
+ * straight into the response encoder (NDJSON: one order per line with its items; CSV: one line
+ * per order item), so heap use does not grow with the number of orders. Each running export
+ * holds a pooled connection, so only a few may run at once.
+ */
+@Component
+public class OrderExporter {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderExporter.class);
+
+    private static final String CSV_HEADER = "orderNumber,restName,driverName,orderStatus,orderDate,orderTime,"
+            + "deliveryDate,deliveryTime,subtotalAmount,serviceCharge,tipAmount,grandTotal,"
+            + "itemID,itemName,itemPrice,quantity,lineSubtotal";
+
+    public enum Format {
+        NDJSON("application/x-ndjson"),
+        CSV("text/csv");
+
+        private final String contentType;
+
+        Format(String contentType) {
+            this.contentType = contentType;
+        }
+
+        public String contentType() {
+            return contentType;
+        }
+
+        public static Format fromParam(String format) {
+            return switch (format == null ? "ndjson" : format.toLowerCase(Locale.ROOT)) {
+                case "ndjson", "jsonl" -> NDJSON;
+                case "csv" -> CSV;
+                default -> throw new IllegalArgumentException("format must be ndjson or csv");
+            };
+        }
+    }
+
+    private final FrontdashRepository repository;
+    private final ObjectMapper objectMapper;
+    private final Semaphore running;
+
+    public OrderExporter(FrontdashRepository repository, ObjectMapper objectMapper,
+                         @Value("${frontdash.orders.export.max-concurrent:2}") int maxConcurrent) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.running = new Semaphore(Math.max(1, maxConcurrent));
+    }
+
+    /**
+     * Refuses up front when every export slot is busy, so the usual 503 goes out before any headers.
+     * The slot itself is only taken inside {@link Export#writeTo(OutputStream)}: an export whose
+     * stream never runs (rejected by the async executor, request failed before dispatch) holds nothing.
+     */
+    public Export open(Format format, LocalDate from, LocalDate to) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        if (running.availablePermits() == 0) {
+            throw busy();
+        }
+        return new Export(format, from, to);
+    }
+
+    private static ExportBusyException busy() {
+        return new ExportBusyException("Too many order exports running, please retry shortly", 30);
+    }
+
+    public final class Export {
+        private final Format format;
+        private final LocalDate from;
+        private final LocalDate to;
+
+        private Export(Format format, LocalDate from, LocalDate to) {
+            this.format = format;
+            this.from = from;
+            this.to = to;
+        }
+
+        public Format format() {
+            return format;
+        }
+
+        public void writeTo(OutputStream out) throws IOException {
+            // Another export may have taken the last slot since open(); nothing has been written yet
+            if (!running.tryAcquire()) {
+                throw busy();
+            }
+            long start = System.nanoTime();
+            try {
+                Encoder encoder = format == Format.CSV
+                        ? new CsvEncoder(out)
+                        : new NdjsonEncoder(objectMapper.getFactory().createGenerator(out).setRootValueSeparator(null));
+                try {
+                    repository.streamOrdersWithItems(from, to, encoder);
+                } catch (UncheckedIOException e) {
+                    throw e.getCause();
+                }
+                encoder.finish();
+                long elapsedMillis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+                log.info("Exported {} orders ({} rows, {}) in {} ms, {} rows/s", encoder.orders, encoder.rows,
+                        format, elapsedMillis, encoder.rows * 1000 / elapsedMillis);
+            } finally {
+                running.release();
+            }
+        }
+    }
+
+    private abstract static class Encoder implements OrderExportSink {
+        long orders;
+        // Result-set rows: one per order item, or one for an order without items
+        long rows;
+
+        abstract void finish() throws IOException;
+    }
+
+    private static final class NdjsonEncoder extends Encoder {
+        private final JsonGenerator json;
+        private boolean open;
+        private boolean openHasItems;
+
+        NdjsonEncoder(JsonGenerator json) {
+            this.json = json;
+        }
+
+        @Override
+        public void order(ExportedOrder order) {
+            try {
+                closeOrder();
+                json.writeStartObject();
+                json.writeNumberField("orderNumber", order.orderNumber());
+                json.writeStringField("restName", order.restName());
+                json.writeStringField("driverName", order.driverName());
+                json.writeStringField("orderStatus", order.orderStatus());
+                json.writeStringField("orderDate", text(order.orderDate()));
+                json.writeStringField("orderTime", text(order.orderTime()));
+                json.writeStringField("deliveryDate", text(order.deliveryDate()));
+                json.writeStringField("deliveryTime", text(order.deliveryTime()));
+                writeAmount("subtotalAmount", order.subtotalAmount());
+                writeAmount("serviceCharge", order.serviceCharge());
+                writeAmount("tipAmount", order.tipAmount());
+                writeAmount("grandTotal", order.grandTotal());
+                json.writeArrayFieldStart("items");
+                open = true;
+                openHasItems = false;
+                orders++;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void item(ExportedOrderItem item) {
+            try {
+                json.writeStartObject();
+                json.writeNumberField("itemID", item.itemId());
+                json.writeStringField("itemName", item.itemName());
+                writeAmount("itemPrice", item.itemPrice());
+                json.writeNumberField("quantity", item.quantity());
+                writeAmount("lineSubtotal", item.lineSubtotal());
+                json.writeEndObject();
+                openHasItems = true;
+                rows++;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        void finish() throws IOException {
+            closeOrder();
+            json.flush();
+        }
+
+        private void closeOrder() throws IOException {
+            if (open) {
+                json.writeEndArray();
+                json.writeEndObject();
+                json.writeRaw('\n');
+                if (!openHasItems) {
+                    rows++;
+                }
+                open = false;
+            }
+        }
+
+        private void writeAmount(String field, BigDecimal amount) throws IOException {
+            if (amount == null) {
+                json.writeNullField(field);
+            } else {
+                json.writeNumberField(field, amount);
+            }
+        }
+    }
+
+    /** One line per order item; an order without items still gets one line with the item columns left empty. */
+    private static final class CsvEncoder extends Encoder {
+        private static final String NO_ITEM = ",,,,";
+
+        private final Writer out;
+        private ExportedOrder current;
+        private boolean currentHasItems;
+
+        CsvEncoder(OutputStream out) throws IOException {
+            this.out = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+            this.out.write(CSV_HEADER);
+            this.out.write("\r\n");
+        }
+
+        @Override
+        public void order(ExportedOrder order) {
+            try {
+                writeItemlessOrder();
+                current = order;
+                currentHasItems = false;
+                orders++;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void item(ExportedOrderItem item) {
+            try {
+                writeOrderColumns(current);
+                out.write(csv(item.itemId()));
+                out.write(',');
+                out.write(csv(item.itemName()));
+                out.write(',');
+                out.write(csv(item.itemPrice()));
+                out.write(',');
+                out.write(csv(item.quantity()));
+                out.write(',');
+                out.write(csv(item.lineSubtotal()));
+                out.write("\r\n");
+                currentHasItems = true;
+                rows++;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        void finish() throws IOException {
+            writeItemlessOrder();
+            out.flush();
+        }
+
+        private void writeItemlessOrder() throws IOException {
+            if (current != null && !currentHasItems) {
+                writeOrderColumns(current);
+                out.write(NO_ITEM);
+                out.write("\r\n");
+                rows++;
+            }
+        }
+
+        private void writeOrderColumns(ExportedOrder order) throws IOException {
+            Object[] columns = {order.orderNumber(), order.restName(), order.driverName(), order.orderStatus(),
+                    order.orderDate(), order.orderTime(), order.deliveryDate(), order.deliveryTime(),
+                    order.subtotalAmount(), order.serviceCharge(), order.tipAmount(), order.grandTotal()};
+            for (Object column : columns) {
+                out.write(csv(column));
+                out.write(',');
+            }
+        }
+    }
+
+    static String csv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value instanceof BigDecimal amount ? amount.toPlainString() : value.toString();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return '"' + text.replace("\"", "\"\"") + '"';
+            }
+        }
+        return text;
+    }
+
+    private static String text(Object value) {
+        return value == null ? null : value.toString();
+    }
+}
@@ -0,0 +1,18 @@
+package com.frontdash.backend.service;
+
+/**
+ * Raised when the group-commit pipeline cannot accept or finish an order in time.
+ */
+public class OrderIngestionException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public OrderIngestionException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
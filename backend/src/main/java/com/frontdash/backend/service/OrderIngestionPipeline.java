@@ -0,0 +1,234 @@
+package com.frontdash.backend.service;
+
+import com.frontdash.backend.dto.CreateOrderResponse;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Opt-in group-commit mode for order intake. Request threads park validated drafts on a
+ * bounded queue; a single writer thread drains them into groups and commits each group in
+ * one transaction, so a burst of orders shares commits instead of each holding a pooled
+ * connection for its own. A request that stops waiting withdraws its draft, so an order is
+ * either confirmed to its caller or never written.
+ */
+@Component
+public class OrderIngestionPipeline {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderIngestionPipeline.class);
+
+    private final OrderWriter orderWriter;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long maxLingerNanos;
+    private final long waitTimeoutMillis;
+    private final BlockingQueue<PendingOrder> queue;
+
+    private volatile boolean running;
+    private Thread writerThread;
+
+    public OrderIngestionPipeline(
+            OrderWriter orderWriter,
+            @Value("${frontdash.orders.group-commit.enabled:false}") boolean enabled,
+            @Value("${frontdash.orders.group-commit.batch-size:32}") int batchSize,
+            @Value("${frontdash.orders.group-commit.max-linger-ms:5}") long maxLingerMillis,
+            @Value("${frontdash.orders.group-commit.queue-capacity:1024}") int queueCapacity,
+            @Value("${frontdash.orders.group-commit.wait-timeout-ms:10000}") long waitTimeoutMillis) {
+        this.orderWriter = orderWriter;
+        this.enabled = enabled;
+        this.batchSize = Math.max(1, batchSize);
+        this.maxLingerNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, maxLingerMillis));
+        this.waitTimeoutMillis = waitTimeoutMillis;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        writerThread = new Thread(this::runWriter, "order-group-commit");
+        writerThread.setDaemon(true);
+        writerThread.start();
+        log.info("Order group commit enabled (batchSize={}, maxLingerMs={})",
+                batchSize, TimeUnit.NANOSECONDS.toMillis(maxLingerNanos));
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        if (writerThread != null) {
+            writerThread.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public CreateOrderResponse submit(OrderDraft draft) {
+        PendingOrder pending = new PendingOrder(draft);
+        if (!running || !queue.offer(pending)) {
+            throw new OrderIngestionException("Order intake is busy, please retry", 1);
+        }
+        try {
+            return pending.result().get(waitTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        } catch (TimeoutException e) {
+            if (pending.abandon()) {
+                queue.remove(pending);
+                throw new OrderIngestionException("Order was not confirmed in time", 1);
+            }
+            // The writer already took it, so it is committing now; the caller must learn the outcome
+            return awaitTaken(pending);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if (pending.abandon()) {
+                queue.remove(pending);
+                throw new OrderIngestionException("Order submission interrupted", 1);
+            }
+            return awaitTaken(pending);
+        }
+    }
+
+    private static CreateOrderResponse awaitTaken(PendingOrder pending) {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    return pending.result().get();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                } catch (ExecutionException e) {
+                    throw unwrap(e);
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static RuntimeException unwrap(ExecutionException e) {
+        if (e.getCause() instanceof RuntimeException re) {
+            return re;
+        }
+        return new IllegalStateException(e.getCause());
+    }
+
+    private void runWriter() {
+        List<PendingOrder> group = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingOrder first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                group.add(first);
+                queue.drainTo(group, batchSize - group.size());
+                long deadline = System.nanoTime() + maxLingerNanos;
+                while (group.size() < batchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        break;
+                    }
+                    PendingOrder next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    group.add(next);
+                    queue.drainTo(group, batchSize - group.size());
+                }
+                commit(group);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            } catch (RuntimeException e) {
+                log.error("Order group commit failed", e);
+                group.forEach(p -> p.result().completeExceptionally(e));
+            } finally {
+                group.clear();
+            }
+        }
+    }
+
+    private void commit(List<PendingOrder> group) {
+        // Drafts whose callers already gave up were answered with a retry; writing them would duplicate the order
+        group.removeIf(pending -> !pending.take());
+        if (group.isEmpty()) {
+            return;
+        }
+        List<OrderDraft> drafts = new ArrayList<>(group.size());
+        for (PendingOrder pending : group) {
+            drafts.add(pending.draft());
+        }
+        try {
+            List<CreateOrderResponse> responses = orderWriter.writeGroup(drafts);
+            for (int i = 0; i < group.size(); i++) {
+                group.get(i).result().complete(responses.get(i));
+            }
+        } catch (RuntimeException groupFailure) {
+            if (group.size() == 1) {
+                group.get(0).result().completeExceptionally(groupFailure);
+                return;
+            }
+            // One bad order must not fail its neighbours: retry each on its own transaction
+            log.warn("Order group of {} rolled back, retrying individually", group.size(), groupFailure);
+            for (PendingOrder pending : group) {
+                try {
+                    pending.result().complete(orderWriter.write(pending.draft()));
+                } catch (RuntimeException e) {
+                    pending.result().completeExceptionally(e);
+                }
+            }
+        }
+    }
+
+    private static final class PendingOrder {
+        private static final int QUEUED = 0;
+        private static final int TAKEN = 1;
+        private static final int ABANDONED = 2;
+
+        private final OrderDraft draft;
+        private final CompletableFuture<CreateOrderResponse> result = new CompletableFuture<>();
+        private final AtomicInteger state = new AtomicInteger(QUEUED);
+
+        PendingOrder(OrderDraft draft) {
+            this.draft = draft;
+        }
+
+        OrderDraft draft() {
+            return draft;
+        }
+
+        CompletableFuture<CreateOrderResponse> result() {
+            return result;
+        }
+
+        // Writer side: claims the draft for a commit unless its caller has already given up
+        boolean take() {
+            return state.compareAndSet(QUEUED, TAKEN);
+        }
+
+        // Caller side: withdraws the draft unless the writer has already claimed it
+        boolean abandon() {
+            return state.compareAndSet(QUEUED, ABANDONED);
+        }
+    }
+}
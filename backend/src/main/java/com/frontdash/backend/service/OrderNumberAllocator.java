@@ -0,0 +1,69 @@
+package com.frontdash.backend.service;
+
+import com.frontdash.backend.repository.FrontdashRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Hi/lo allocator for order numbers. Each node reserves a block from the OrderNumberSequence
+ * row and hands numbers out from memory, so an order's number is known before any of its rows
+ * are written. Blocks never overlap between nodes; numbers left in a block at shutdown are
+ * simply skipped.
+ */
+@Component
+public class OrderNumberAllocator {
+
+    private final FrontdashRepository repository;
+    private final TransactionTemplate reserveTx;
+    private final int blockSize;
+    private final AtomicReference<Block> current = new AtomicReference<>(new Block(0, 0));
+
+    public OrderNumberAllocator(
+            FrontdashRepository repository,
+            PlatformTransactionManager transactionManager,
+            @Value("${frontdash.orders.number-block-size:100}") int blockSize) {
+        this.repository = repository;
+        this.reserveTx = new TransactionTemplate(transactionManager);
+        // The reservation must commit on its own, never ride along with (or wait on) an order transaction
+        this.reserveTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.blockSize = Math.max(1, blockSize);
+    }
+
+    public int next() {
+        while (true) {
+            Block block = current.get();
+            int candidate = block.next.getAndIncrement();
+            if (candidate < block.end) {
+                return candidate;
+            }
+            refill(block);
+        }
+    }
+
+    private synchronized void refill(Block exhausted) {
+        if (current.get() != exhausted) {
+            return;
+        }
+        Integer start = reserveTx.execute(status -> repository.reserveOrderNumbers(blockSize));
+        if (start == null || start <= 0) {
+            throw new IllegalStateException("Could not reserve a block of order numbers");
+        }
+        current.set(new Block(start, start + blockSize));
+    }
+
+    private static final class Block {
+        private final AtomicInteger next;
+        private final int end;
+
+        private Block(int start, int end) {
+            this.next = new AtomicInteger(start);
+            this.end = end;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.frontdash.backend.service;
+
+import com.frontdash.backend.dto.CreateOrderRequest;
+import com.frontdash.backend.dto.CreateOrderResponse;
+import com.frontdash.backend.repository.FrontdashRepository;
+import com.frontdash.backend.repository.FrontdashRepository.OrderDelivery;
+import com.frontdash.backend.repository.FrontdashRepository.OrderHeader;
+import com.frontdash.backend.repository.FrontdashRepository.OrderIdempotency;
+import com.frontdash.backend.repository.FrontdashRepository.OrderLine;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static com.frontdash.backend.service.PricingEngine.toAmount;
+
+@Component
+public class OrderWriter {
+
+    private final FrontdashRepository repository;
+    private final AddressInterner addresses;
+
+    public OrderWriter(FrontdashRepository repository, AddressInterner addresses) {
+        this.repository = repository;
+        this.addresses = addresses;
+    }
+
+    @Transactional
+    public CreateOrderResponse write(OrderDraft draft) {
+        return insert(List.of(draft)).get(0);
+    }
+
+    // Writes every draft under one transaction, so the whole group shares a single commit
+    @Transactional
+    public List<CreateOrderResponse> writeGroup(List<OrderDraft> drafts) {
+        return insert(drafts);
+    }
+
+    private List<CreateOrderResponse> insert(List<OrderDraft> drafts) {
+        verifyAgainstMenu(drafts);
+        // Order numbers are pre-allocated, so headers, lines and delivery links each go out as one batch
+        List<OrderHeader> headers = new ArrayList<>(drafts.size());
+        List<OrderLine> lines = new ArrayList<>();
+        List<OrderDelivery> deliveries = new ArrayList<>(drafts.size());
+        List<OrderIdempotency> idempotencyKeys = new ArrayList<>();
+        for (OrderDraft draft : drafts) {
+            headers.add(draft.header());
+            lines.addAll(draft.lines());
+            if (draft.idempotencyKey() != null) {
+                idempotencyKeys.add(draft.idempotency());
+            }
+            CreateOrderRequest.DeliveryDetails delivery = draft.delivery();
+            int addressId = addresses.intern(
+                    delivery.getStreetAddress1(),
+                    delivery.getStreetAddress2(),
+                    delivery.getCity(),
+                    delivery.getState(),
+                    delivery.getZip()
+            );
+            deliveries.add(new OrderDelivery(draft.orderNumber(), addressId, delivery.getContactName(), delivery.getContactPhone()));
+        }
+        repository.createOrders(headers);
+        repository.addOrderItems(lines);
+        repository.setOrderDeliveryAddresses(deliveries);
+        if (!idempotencyKeys.isEmpty()) {
+            // Same transaction as the order: a key is durable exactly when its order is
+            repository.recordIdempotencyKeys(idempotencyKeys);
+        }
+
+        List<CreateOrderResponse> responses = new ArrayList<>(drafts.size());
+        for (OrderDraft draft : drafts) {
+            responses.add(new CreateOrderResponse(draft.orderNumber(), toAmount(draft.subtotalCents()),
+                    toAmount(draft.serviceChargeCents()), toAmount(draft.tipCents()), toAmount(draft.grandTotalCents()),
+                    "Order created"));
+        }
+        return responses;
+    }
+
+    // Drafts are priced from this node's MenuPriceIndex, which cannot see menu edits made through other nodes.
+    // One fixed-shape version read per restaurant tells whether the menu a draft was priced from is still current.
+    private void verifyAgainstMenu(List<OrderDraft> drafts) {
+        Set<String> restaurants = new TreeSet<>();
+        for (OrderDraft draft : drafts) {
+            restaurants.add(draft.restName());
+        }
+        // Sorted, so concurrent groups take the restaurant row locks in the same order
+        Map<String, Long> current = new HashMap<>();
+        for (String restName : restaurants) {
+            current.put(restName, repository.lockMenuVersion(restName));
+        }
+        for (OrderDraft draft : drafts) {
+            Long menuVersion = current.get(draft.restName());
+            if (menuVersion == null || menuVersion != draft.menuVersion()) {
+                throw new MenuChangedException(draft.restName());
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.frontdash.backend.service;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Single source of truth for order money math. Everything is carried as {@code long} cents,
+ * so pricing a cart allocates nothing and never goes through double rounding; amounts are only
+ * turned back into decimals at the JSON/JDBC boundary.
+ */
+@Component
+public class PricingEngine {
+
+    /** Service charge of 8.25%, expressed in basis points of the subtotal. */
+    public static final long SERVICE_CHARGE_BASIS_POINTS = 825;
+
+    private static final long BASIS_POINTS = 10_000;
+
+    public long lineTotalCents(long unitPriceCents, int quantity) {
+        if (quantity < 1) {
+            throw new IllegalArgumentException("Quantity must be at least 1");
+        }
+        return Math.multiplyExact(unitPriceCents, quantity);
+    }
+
+    public long serviceChargeCents(long subtotalCents) {
+        // Half-up rounding to the cent, same as ROUND(subtotal * 0.0825, 2) for non-negative amounts
+        return (Math.multiplyExact(subtotalCents, SERVICE_CHARGE_BASIS_POINTS) + BASIS_POINTS / 2) / BASIS_POINTS;
+    }
+
+    public long tipCents(Double tipAmount) {
+        if (tipAmount == null) {
+            return 0;
+        }
+        if (!Double.isFinite(tipAmount) || tipAmount < 0) {
+            throw new IllegalArgumentException("Tip amount must be zero or more");
+        }
+        return Math.round(tipAmount * 100);
+    }
+
+    public long grandTotalCents(long subtotalCents, long serviceChargeCents, long tipCents) {
+        return Math.addExact(Math.addExact(subtotalCents, serviceChargeCents), tipCents);
+    }
+
+    public static double toAmount(long cents) {
+        return cents / 100.0;
+    }
+}
@@ -0,0 +1,225 @@
+package com.frontdash.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.frontdash.backend.repository.FieldProjection;
+import com.frontdash.backend.repository.FrontdashRepository;
+import com.frontdash.backend.repository.FrontdashRepository.LocatedRestaurant;
+import com.frontdash.backend.repository.FrontdashRepository.RestaurantListing;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Restaurant directory held as ready-to-send JSON, one immutable snapshot per
+ * includePending/includeInactive combination, plus a zip -> snapshot map per combination for
+ * "restaurants near me". Snapshots are built on first use and thrown away whenever a registration,
+ * approval or withdrawal made through this node changes who is listed. Changes made through other
+ * nodes are picked up once a snapshot expires: the first request after that rebuilds it in place
+ * while concurrent requests keep getting the previous one. City/state filters and projections go to
+ * SQL on each request. A snapshot is only gzipped when a client asks for it, once per snapshot.
+ */
+@Component
+public class RestaurantDirectory {
+
+    private final FrontdashRepository repository;
+    private final ObjectMapper objectMapper;
+    private final long ttlNanos;
+    private final AtomicReferenceArray<Held<Snapshot>> snapshots = new AtomicReferenceArray<>(4);
+    private final AtomicReferenceArray<Held<Map<String, Snapshot>>> byZip = new AtomicReferenceArray<>(4);
+    private final AtomicLong generation = new AtomicLong();
+
+    public RestaurantDirectory(FrontdashRepository repository, ObjectMapper objectMapper,
+                               @Value("${frontdash.directory.cache-ttl-ms:60000}") long ttlMillis) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, ttlMillis));
+    }
+
+    public Snapshot get(boolean includePending, boolean includeInactive) {
+        return cached(snapshots, slot(includePending, includeInactive), directoryBuilder(includePending, includeInactive));
+    }
+
+    public Snapshot get(boolean includePending, boolean includeInactive, String city, String state, String zip) {
+        if (city == null && state == null && zip == null) {
+            return get(includePending, includeInactive);
+        }
+        if (city == null && state == null) {
+            Map<String, Snapshot> zips = cached(byZip, slot(includePending, includeInactive),
+                    zipBuilder(includePending, includeInactive));
+            Snapshot snapshot = zips.get(zip);
+            return snapshot != null ? snapshot : snapshot(List.of());
+        }
+        List<RestaurantListing> rows = new ArrayList<>();
+        for (LocatedRestaurant located : repository.listRestaurantsByLocation(includePending, includeInactive, city, state, zip)) {
+            rows.add(located.restaurant());
+        }
+        return snapshot(rows);
+    }
+
+    /** A sparse listing with only the projected columns; built from SQL on every call, never cached. */
+    public Snapshot project(boolean includePending, boolean includeInactive, String city, String state, String zip,
+                            FieldProjection projection) {
+        return snapshot(repository.listRestaurants(includePending, includeInactive, city, state, zip, projection));
+    }
+
+    /** Plain JSON of every built full-directory snapshot by variant slot, for the catalog snapshot file. */
+    public Map<Integer, byte[]> currentJson() {
+        Map<Integer, byte[]> current = new HashMap<>();
+        for (int i = 0; i < snapshots.length(); i++) {
+            Held<Snapshot> held = snapshots.get(i);
+            if (held != null) {
+                current.put(i, held.value().json());
+            }
+        }
+        return current;
+    }
+
+    public void preload(int slot, byte[] json) {
+        snapshots.compareAndSet(slot, null, new Held<>(new Snapshot(json), System.nanoTime()));
+    }
+
+    /** Rebuilds every snapshot that is currently held, without ever leaving one empty. */
+    public void reload() {
+        for (int i = 0; i < snapshots.length(); i++) {
+            Held<Snapshot> held = snapshots.get(i);
+            if (held != null) {
+                refresh(snapshots, i, held, directoryBuilder((i & 2) != 0, (i & 1) != 0));
+            }
+            Held<Map<String, Snapshot>> zips = byZip.get(i);
+            if (zips != null) {
+                refresh(byZip, i, zips, zipBuilder((i & 2) != 0, (i & 1) != 0));
+            }
+        }
+    }
+
+    public void invalidate() {
+        generation.incrementAndGet();
+        for (int i = 0; i < snapshots.length(); i++) {
+            snapshots.set(i, null);
+            byZip.set(i, null);
+        }
+    }
+
+    private static int slot(boolean includePending, boolean includeInactive) {
+        return (includePending ? 2 : 0) | (includeInactive ? 1 : 0);
+    }
+
+    private Supplier<Snapshot> directoryBuilder(boolean includePending, boolean includeInactive) {
+        return () -> snapshot(repository.listRestaurants(includePending, includeInactive));
+    }
+
+    private Supplier<Map<String, Snapshot>> zipBuilder(boolean includePending, boolean includeInactive) {
+        return () -> zipIndex(includePending, includeInactive);
+    }
+
+    private <T> T cached(AtomicReferenceArray<Held<T>> slots, int slot, Supplier<T> builder) {
+        Held<T> held = slots.get(slot);
+        if (held != null) {
+            return System.nanoTime() - held.loadedAt() < ttlNanos ? held.value() : refresh(slots, slot, held, builder);
+        }
+        long before = generation.get();
+        T built = builder.get();
+        // A change that landed mid-build leaves the slot empty so the next request rebuilds
+        if (generation.get() == before) {
+            Held<T> fresh = new Held<>(built, System.nanoTime());
+            slots.compareAndSet(slot, null, fresh);
+            if (generation.get() != before) {
+                slots.compareAndSet(slot, fresh, null);
+            }
+        }
+        return built;
+    }
+
+    // Re-stamping the held value claims the rebuild: concurrent callers take it as fresh and keep serving it
+    // until the new value is swapped in, so neither an expiry nor a reload ever leaves the slot empty
+    private <T> T refresh(AtomicReferenceArray<Held<T>> slots, int slot, Held<T> held, Supplier<T> builder) {
+        long before = generation.get();
+        Held<T> claimed = new Held<>(held.value(), System.nanoTime());
+        if (!slots.compareAndSet(slot, held, claimed)) {
+            return held.value();
+        }
+        T built;
+        try {
+            built = builder.get();
+        } catch (RuntimeException e) {
+            // Leave it expired so the next request tries again
+            slots.compareAndSet(slot, claimed, held);
+            throw e;
+        }
+        Held<T> fresh = new Held<>(built, System.nanoTime());
+        if (generation.get() == before && slots.compareAndSet(slot, claimed, fresh) && generation.get() != before) {
+            slots.compareAndSet(slot, fresh, null);
+        }
+        return built;
+    }
+
+    private Map<String, Snapshot> zipIndex(boolean includePending, boolean includeInactive) {
+        Map<String, List<RestaurantListing>> grouped = new HashMap<>();
+        for (LocatedRestaurant located : repository.listRestaurantsByLocation(includePending, includeInactive, null, null, null)) {
+            if (located.zip() != null) {
+                grouped.computeIfAbsent(located.zip(), z -> new ArrayList<>()).add(located.restaurant());
+            }
+        }
+        Map<String, Snapshot> zips = new HashMap<>(grouped.size() * 2);
+        grouped.forEach((zip, rows) -> zips.put(zip, snapshot(rows)));
+        return Map.copyOf(zips);
+    }
+
+    private Snapshot snapshot(List<?> rows) {
+        try {
+            return new Snapshot(objectMapper.writeValueAsBytes(rows));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize restaurant directory", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, bytes.length / 4));
+        try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+            gz.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private record Held<T>(T value, long loadedAt) {}
+
+    /** Serialized listing; the gzipped form is built the first time a client accepts it and then kept. */
+    public static final class Snapshot {
+
+        private final byte[] json;
+        private volatile byte[] gzip;
+
+        Snapshot(byte[] json) {
+            this.json = json;
+        }
+
+        public byte[] json() {
+            return json;
+        }
+
+        public byte[] gzip() {
+            byte[] compressed = gzip;
+            if (compressed == null) {
+                // Racing callers may both compress; they produce the same bytes, so the last write wins harmlessly
+                compressed = RestaurantDirectory.gzip(json);
+                gzip = compressed;
+            }
+            return compressed;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.frontdash.backend.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent identical reads: the first caller for a key runs the query and everyone
+ * who asks for the same key while it is in flight gets that result instead of taking another
+ * pooled connection. Nothing is cached once the flight lands. Counters are kept per key so the
+ * admin stats show where coalescing actually happens.
+ */
+@Component
+public class SingleFlight {
+
+    private static final int MAX_TRACKED_KEYS = 1000;
+    private static final String OTHER_KEYS = "(other)";
+
+    private final Map<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, KeyStats> stats = new ConcurrentHashMap<>();
+
+    public <T> T run(String key, Supplier<T> loader) {
+        return run(key, null, loader);
+    }
+
+    /**
+     * Like {@link #run(String, Supplier)}, but only callers that also agree on {@code version}
+     * share a flight, so a read that starts after a write never joins a query issued before it.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T run(String key, Object version, Supplier<T> loader) {
+        KeyStats keyStats = statsFor(key);
+        keyStats.calls.increment();
+        String flightKey = version == null ? key : key + '#' + version;
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> leader = inFlight.putIfAbsent(flightKey, mine);
+        if (leader != null) {
+            keyStats.coalesced.increment();
+            return (T) await(leader);
+        }
+        try {
+            T result = loader.get();
+            mine.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(flightKey, mine);
+        }
+    }
+
+    public List<Map<String, Object>> stats() {
+        List<Map<String, Object>> rows = new ArrayList<>(stats.size());
+        stats.forEach((key, keyStats) -> {
+            Map<String, Object> row = new LinkedHashMap<>();
+            long calls = keyStats.calls.sum();
+            long coalesced = keyStats.coalesced.sum();
+            row.put("key", key);
+            row.put("calls", calls);
+            row.put("queries", calls - coalesced);
+            row.put("coalesced", coalesced);
+            rows.add(row);
+        });
+        rows.sort(Comparator.comparingLong((Map<String, Object> row) -> (Long) row.get("coalesced")).reversed());
+        return rows;
+    }
+
+    private KeyStats statsFor(String key) {
+        KeyStats keyStats = stats.get(key);
+        if (keyStats != null) {
+            return keyStats;
+        }
+        return stats.computeIfAbsent(stats.size() < MAX_TRACKED_KEYS ? key : OTHER_KEYS, k -> new KeyStats());
+    }
+
+    private static Object await(CompletableFuture<Object> leader) {
+        try {
+            return leader.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    private static final class KeyStats {
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder coalesced = new LongAdder();
+    }
+}
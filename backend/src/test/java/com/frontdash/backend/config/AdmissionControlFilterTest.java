@@ -0,0 +1,52 @@
+package com.frontdash.backend.config;
+
+import com.frontdash.backend.config.AdmissionControlFilter.Priority;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdmissionControlFilterTest {
+
+	@Test
+	void orderIntakeAndHealthAreCritical() {
+		assertEquals(Priority.CRITICAL, classify("GET", "/api/health"));
+		assertEquals(Priority.CRITICAL, classify("POST", "/api/orders"));
+		assertEquals(Priority.CRITICAL, classify("POST", "/api/orders/quote"));
+	}
+
+	@Test
+	void everyAdminDashboardReadIsSheddable() {
+		assertEquals(Priority.SHEDDABLE, classify("GET", "/api/admin/restaurants"));
+		assertEquals(Priority.SHEDDABLE, classify("GET", "/api/admin/restaurants/pending"));
+		assertEquals(Priority.SHEDDABLE, classify("GET", "/api/admin/staff"));
+		assertEquals(Priority.SHEDDABLE, classify("GET", "/api/admin/drivers"));
+		assertEquals(Priority.SHEDDABLE, classify("GET", "/api/admin/stats/menu-cache"));
+		assertEquals(Priority.SHEDDABLE, classify("GET", "/api/admin/stats/single-flight"));
+		assertEquals(Priority.SHEDDABLE, classify("GET", "/api/orders"));
+		assertEquals(Priority.SHEDDABLE, classify("GET", "/api/orders/export"));
+	}
+
+	@Test
+	void adminWritesAndCustomerReadsKeepTheDefaultShare() {
+		assertEquals(Priority.NORMAL, classify("POST", "/api/admin/staff"));
+		assertEquals(Priority.NORMAL, classify("PUT", "/api/admin/drivers/status"));
+		assertEquals(Priority.NORMAL, classify("POST", "/api/admin/restaurants/approval"));
+		assertEquals(Priority.NORMAL, classify("GET", "/api/restaurant/menu"));
+		assertEquals(Priority.NORMAL, classify("GET", "/api/admin"));
+	}
+
+	@Test
+	void onlyImportAndExportSkipLatencySampling() {
+		assertTrue(AdmissionControlFilter.isLongRunning(new MockHttpServletRequest("GET", "/api/orders/export")));
+		assertTrue(AdmissionControlFilter.isLongRunning(
+				new MockHttpServletRequest("POST", "/api/restaurant/menu-items/import")));
+		assertFalse(AdmissionControlFilter.isLongRunning(new MockHttpServletRequest("GET", "/api/admin/staff")));
+	}
+
+	private static Priority classify(String method, String path) {
+		return AdmissionControlFilter.classify(new MockHttpServletRequest(method, path));
+	}
+}
@@ -0,0 +1,32 @@
+package com.frontdash.backend.controller;
+
+import com.frontdash.backend.service.ExportBusyException;
+import com.frontdash.backend.service.FrontdashService;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class OrderControllerTest {
+
+	private final FrontdashService service = mock(FrontdashService.class);
+	private final MockMvc mvc = MockMvcBuilders.standaloneSetup(new OrderController(service)).build();
+
+	@Test
+	void busyExportAsksTheClientToRetry() throws Exception {
+		when(service.exportOrders("csv", null, null))
+				.thenThrow(new ExportBusyException("Too many order exports running, please retry shortly", 30));
+
+		mvc.perform(get("/api/orders/export").param("format", "csv"))
+				.andExpect(status().isServiceUnavailable())
+				.andExpect(header().string(HttpHeaders.RETRY_AFTER, "30"))
+				.andExpect(jsonPath("$.message").value("Too many order exports running, please retry shortly"));
+	}
+}
@@ -0,0 +1,67 @@
+package com.frontdash.backend.controller;
+
+import com.frontdash.backend.repository.FrontdashRepository.MenuEntry;
+import com.frontdash.backend.service.FrontdashService;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class RestaurantControllerTest {
+
+	private final FrontdashService service = mock(FrontdashService.class);
+	private final MockMvc mvc = MockMvcBuilders.standaloneSetup(new RestaurantController(service)).build();
+
+	@Test
+	void unchangedMenuRevalidatesWithoutABody() throws Exception {
+		when(service.getMenuVersion("Taco Town")).thenReturn(3L);
+		when(service.getMenu("Taco Town", 3)).thenReturn(List.of(new MenuEntry(1, "Churros", new BigDecimal("4.00"), "Y")));
+
+		String etag = mvc.perform(get("/api/restaurant/menu").param("restName", "Taco Town"))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+		mvc.perform(get("/api/restaurant/menu").param("restName", "Taco Town").header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isNotModified());
+	}
+
+	@Test
+	void menuEditedThroughAnotherNodeChangesTheETag() throws Exception {
+		// This node's service never handled the edit; only Restaurant.menuVersion moved (3 -> 4)
+		when(service.getMenuVersion("Taco Town")).thenReturn(3L, 4L);
+		when(service.getMenu("Taco Town", 3)).thenReturn(List.of(new MenuEntry(1, "Churros", new BigDecimal("4.00"), "Y")));
+		when(service.getMenu("Taco Town", 4)).thenReturn(List.of(new MenuEntry(1, "Churros", new BigDecimal("4.50"), "Y")));
+
+		String before = mvc.perform(get("/api/restaurant/menu").param("restName", "Taco Town"))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		String after = mvc.perform(get("/api/restaurant/menu").param("restName", "Taco Town")
+						.header(HttpHeaders.IF_NONE_MATCH, before))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$[0].itemPrice").value(4.50))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+		assertNotEquals(before, after);
+	}
+
+	@Test
+	void hoursEditedThroughAnotherNodeChangesTheETag() throws Exception {
+		when(service.getHoursVersion("Taco Town")).thenReturn(1L, 2L);
+		when(service.getHours("Taco Town", 1)).thenReturn(List.of());
+		when(service.getHours("Taco Town", 2)).thenReturn(List.of());
+
+		String before = mvc.perform(get("/api/restaurant/hours").param("restName", "Taco Town"))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		mvc.perform(get("/api/restaurant/hours").param("restName", "Taco Town").header(HttpHeaders.IF_NONE_MATCH, before))
+				.andExpect(status().isOk());
+	}
+}
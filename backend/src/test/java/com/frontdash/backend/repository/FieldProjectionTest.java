@@ -0,0 +1,44 @@
+package com.frontdash.backend.repository;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FieldProjectionTest {
+
+	@Test
+	void fieldsAreCompiledInWhitelistOrderWithRequiredFieldsAdded() {
+		FieldProjection projection = FrontdashRepository.ORDER_LIST_FIELDS.compile("grandTotal, orderStatus");
+
+		assertEquals("orderNumber,orderStatus,grandTotal", projection.key());
+		assertEquals("orderNumber, orderStatus, grandTotal", projection.selectList());
+		assertSame(projection, FrontdashRepository.ORDER_LIST_FIELDS.compile("orderStatus,grandTotal,orderNumber"));
+	}
+
+	@Test
+	void blankMeansEveryField() {
+		assertSame(FrontdashRepository.ORDER_LIST_FIELDS.all(), FrontdashRepository.ORDER_LIST_FIELDS.compile(" "));
+		assertEquals(9, FrontdashRepository.ORDER_LIST_FIELDS.all().columnCount());
+	}
+
+	@Test
+	void groupsSelectNoColumns() {
+		FieldProjection projection = FrontdashRepository.ORDER_SUMMARY_FIELDS.compile("orderStatus,items");
+
+		assertEquals("o.orderNumber, o.orderStatus", projection.selectList());
+		assertTrue(projection.includes("items"));
+		assertFalse(projection.includes("address"));
+	}
+
+	@Test
+	void unknownFieldsAreRejected() {
+		assertThrows(IllegalArgumentException.class,
+				() -> FrontdashRepository.RESTAURANT_LIST_FIELDS.compile("restName,password"));
+		assertThrows(IllegalArgumentException.class,
+				() -> FrontdashRepository.ORDER_LIST_FIELDS.compile("orderNumber; DROP TABLE Orders"));
+	}
+}
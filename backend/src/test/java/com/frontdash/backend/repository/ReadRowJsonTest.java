@@ -0,0 +1,47 @@
+package com.frontdash.backend.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.frontdash.backend.repository.FrontdashRepository.HoursEntry;
+import com.frontdash.backend.repository.FrontdashRepository.MenuEntry;
+import com.frontdash.backend.repository.FrontdashRepository.OrderListing;
+import com.frontdash.backend.repository.FrontdashRepository.RestaurantListing;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/** The typed read rows must serialize exactly like the column maps they replaced. */
+class ReadRowJsonTest {
+
+	// Spring Boot's defaults: java.time values are written as ISO strings, like java.sql.Date/Time were
+	private final ObjectMapper mapper = Jackson2ObjectMapperBuilder.json()
+			.featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+			.build();
+
+	@Test
+	void menuAndHoursKeepTheirColumnNames() throws Exception {
+		assertEquals("{\"itemID\":1,\"itemName\":\"Churros\",\"itemPrice\":4.00,\"isAvailable\":\"Y\"}",
+				mapper.writeValueAsString(new MenuEntry(1, "Churros", new BigDecimal("4.00"), "Y")));
+		assertEquals("{\"hoursID\":3,\"dayOfWeek\":\"Mon\",\"openTime\":\"09:00:00\",\"closeTime\":null,\"isClosed\":\"N\"}",
+				mapper.writeValueAsString(new HoursEntry(3, "Mon", LocalTime.of(9, 0), null, "N")));
+	}
+
+	@Test
+	void ordersAndRestaurantsKeepTheirColumnNames() throws Exception {
+		assertEquals("{\"orderNumber\":7,\"restName\":\"Taco Town\",\"driverName\":null,\"orderStatus\":\"Delivered\","
+						+ "\"orderDate\":\"2025-11-02\",\"orderTime\":\"18:30:00\",\"deliveryDate\":\"2025-11-02\","
+						+ "\"deliveryTime\":\"19:05:00\",\"grandTotal\":10.25}",
+				mapper.writeValueAsString(new OrderListing(7, "Taco Town", null, "Delivered", LocalDate.of(2025, 11, 2),
+						LocalTime.of(18, 30), LocalDate.of(2025, 11, 2), LocalTime.of(19, 5), new BigDecimal("10.25"))));
+		assertEquals("{\"restName\":\"Taco Town\",\"isActive\":\"Y\",\"approvalByAdminStatus\":\"Approved\","
+						+ "\"pendingWithdraw\":\"N\",\"contactName\":\"Ana\",\"contactEmail\":\"ana@tacotown.test\","
+						+ "\"contactPhone\":\"555-0100\"}",
+				mapper.writeValueAsString(new RestaurantListing("Taco Town", "Y", "Approved", "N", "Ana",
+						"ana@tacotown.test", "555-0100")));
+	}
+}
@@ -0,0 +1,145 @@
+package com.frontdash.backend.repository;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.jdbc.core.ColumnMapRowMapper;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-row cost of the record mappers against the ColumnMapRowMapper they replaced, over a stub
+ * ResultSet so no database is needed. Run {@link #main} and read {@code gc.alloc.rate.norm}
+ * (bytes per mapped row).
+ * <p>
+ * The stub hands out the same value objects on every call, except dates and times, which are
+ * converted per call as the driver would; figures therefore cover what the mapper allocates (row
+ * container, boxing, java.time conversion), not the driver's string decoding. Each column read
+ * goes through a dynamic proxy, which costs both sides the same constant.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReadRowMapperBenchmark {
+
+	private final ColumnMapRowMapper columnMap = new ColumnMapRowMapper();
+
+	private final ResultSet restaurant = row(
+			new String[]{"restName", "isActive", "approvalByAdminStatus", "pendingWithdraw", "contactName",
+					"contactEmail", "contactPhone"},
+			"Taco Town", "Y", "Approved", "N", "Ana", "ana@tacotown.test", "555-0100");
+
+	private final ResultSet menuItem = row(
+			new String[]{"itemID", "itemName", "itemPrice", "isAvailable"},
+			1042, "Carne Asada Taco", new BigDecimal("3.50"), "Y");
+
+	private final ResultSet order = row(
+			new String[]{"orderNumber", "restName", "driverName", "orderStatus", "orderDate", "orderTime",
+					"deliveryDate", "deliveryTime", "grandTotal"},
+			100_421, "Taco Town", "Sam", "Delivered", java.sql.Date.valueOf("2025-11-02"),
+			java.sql.Time.valueOf("18:30:00"), java.sql.Date.valueOf("2025-11-02"), java.sql.Time.valueOf("19:05:00"),
+			new BigDecimal("10.25"));
+
+	@Benchmark
+	public Map<String, Object> restaurantColumnMap() throws SQLException {
+		return columnMap.mapRow(restaurant, 0);
+	}
+
+	@Benchmark
+	public FrontdashRepository.RestaurantListing restaurantRecord() throws SQLException {
+		return FrontdashRepository.mapRestaurantListing(restaurant);
+	}
+
+	@Benchmark
+	public Map<String, Object> menuColumnMap() throws SQLException {
+		return columnMap.mapRow(menuItem, 0);
+	}
+
+	@Benchmark
+	public FrontdashRepository.MenuEntry menuRecord() throws SQLException {
+		return FrontdashRepository.mapMenuEntry(menuItem, 1);
+	}
+
+	@Benchmark
+	public Map<String, Object> orderColumnMap() throws SQLException {
+		return columnMap.mapRow(order, 0);
+	}
+
+	@Benchmark
+	public FrontdashRepository.OrderListing orderRecord() throws SQLException {
+		return FrontdashRepository.mapOrderListing(order);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder()
+				.include(ReadRowMapperBenchmark.class.getSimpleName())
+				.addProfiler(GCProfiler.class)
+				.build()).run();
+	}
+
+	/** A result set positioned on a single row with the given column labels and values. */
+	private static ResultSet row(String[] labels, Object... values) {
+		ResultSetMetaData metaData = (ResultSetMetaData) Proxy.newProxyInstance(
+				ReadRowMapperBenchmark.class.getClassLoader(), new Class<?>[]{ResultSetMetaData.class},
+				(proxy, method, args) -> switch (method.getName()) {
+					case "getColumnCount" -> labels.length;
+					case "getColumnLabel", "getColumnName" -> labels[(Integer) args[0] - 1];
+					case "getColumnClassName" -> values[(Integer) args[0] - 1].getClass().getName();
+					default -> throw new UnsupportedOperationException(method.getName());
+				});
+		return (ResultSet) Proxy.newProxyInstance(
+				ReadRowMapperBenchmark.class.getClassLoader(), new Class<?>[]{ResultSet.class},
+				(proxy, method, args) -> switch (method.getName()) {
+					case "getMetaData" -> metaData;
+					case "wasNull" -> false;
+					case "getInt" -> ((Number) values[(Integer) args[0] - 1]).intValue();
+					case "getString", "getBigDecimal" -> values[(Integer) args[0] - 1];
+					case "getObject" -> args.length == 1
+							? copy(values[(Integer) args[0] - 1])
+							: convert(values[(Integer) args[0] - 1], (Class<?>) args[1]);
+					default -> throw new UnsupportedOperationException(method.getName());
+				});
+	}
+
+	// Connector/J builds a fresh temporal object for every getObject call
+	private static Object copy(Object value) {
+		if (value instanceof java.sql.Date date) {
+			return new java.sql.Date(date.getTime());
+		}
+		if (value instanceof java.sql.Time time) {
+			return new java.sql.Time(time.getTime());
+		}
+		return value;
+	}
+
+	private static Object convert(Object value, Class<?> type) {
+		if (type == LocalDate.class) {
+			return ((java.sql.Date) value).toLocalDate();
+		}
+		if (type == LocalTime.class) {
+			return ((java.sql.Time) value).toLocalTime();
+		}
+		return value;
+	}
+}
@@ -0,0 +1,81 @@
+package com.frontdash.backend.service;
+
+import com.frontdash.backend.repository.FrontdashRepository;
+import com.frontdash.backend.repository.FrontdashRepository.SearchableItem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Latency of {@link CatalogSearchIndex#search} over the same synthetic catalog as
+ * {@code CatalogSearchIndexTest.findsOneItemInALargeCatalog}: 1,000 restaurants of 100 items.
+ * Run {@link #main} and read the {@code p0.50} and {@code p0.99} rows of each benchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CatalogSearchIndexBenchmark {
+
+	// The page size CatalogController uses when the client sends no limit
+	private static final int LIMIT = 20;
+
+	private CatalogSearchIndex index;
+
+	@Setup
+	public void buildCatalog() {
+		index = new CatalogSearchIndex(mock(FrontdashRepository.class));
+		index.rebuild();
+		for (int r = 0; r < 1_000; r++) {
+			String restName = "Kitchen " + r;
+			List<SearchableItem> items = new ArrayList<>(100);
+			for (int i = 0; i < 100; i++) {
+				int itemId = 10_000 + r * 100 + i;
+				items.add(new SearchableItem(restName, itemId, "Dish " + itemId, "House special number " + i, true));
+			}
+			index.replaceRestaurant(restName, true, items);
+		}
+	}
+
+	// Typeahead after three letters: the prefix matches every description in the catalog
+	@Benchmark
+	public List<CatalogSearchIndex.Hit> broadPrefix() {
+		return index.search("spe", LIMIT);
+	}
+
+	// Typeahead that has narrowed down to a handful of items
+	@Benchmark
+	public List<CatalogSearchIndex.Hit> narrowPrefix() {
+		return index.search("dish 5432", LIMIT);
+	}
+
+	// Two whole words that each match every item, intersected with a prefix matching 1,000
+	@Benchmark
+	public List<CatalogSearchIndex.Hit> multiWord() {
+		return index.search("house special 42", LIMIT);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder()
+				.include(CatalogSearchIndexBenchmark.class.getSimpleName())
+				.build()).run();
+	}
+}
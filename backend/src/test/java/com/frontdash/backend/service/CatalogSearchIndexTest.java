@@ -0,0 +1,114 @@
+package com.frontdash.backend.service;
+
+import com.frontdash.backend.repository.FrontdashRepository;
+import com.frontdash.backend.repository.FrontdashRepository.SearchableItem;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CatalogSearchIndexTest {
+
+	private CatalogSearchIndex index;
+
+	@BeforeEach
+	void setUp() {
+		index = new CatalogSearchIndex(mock(FrontdashRepository.class));
+		index.rebuild();
+		index.replaceRestaurant("Taco Town", true, List.of(
+				new SearchableItem("Taco Town", 1, "Carne Asada Taco", "Grilled steak, onion, cilantro", true),
+				new SearchableItem("Taco Town", 2, "Churros", "Fried dough with cinnamon sugar", true)));
+		index.replaceRestaurant("Pho Café", true, List.of(
+				new SearchableItem("Pho Café", 3, "Beef Pho", "Rice noodles in beef broth", true),
+				new SearchableItem("Pho Café", 4, "Spring Rolls", "Shrimp and rice paper, peanut sauce", false)));
+	}
+
+	@Test
+	void lastWordMatchesAsPrefix() {
+		List<CatalogSearchIndex.Hit> hits = index.search("chur", 10);
+
+		assertEquals(1, hits.size());
+		assertEquals(2, hits.get(0).itemId());
+	}
+
+	@Test
+	void everyWordMustMatch() {
+		assertEquals(List.of(3), itemIds(index.search("rice beef", 10)));
+		assertTrue(index.search("beef taco", 10).isEmpty());
+	}
+
+	@Test
+	void namesOutrankDescriptions() {
+		List<CatalogSearchIndex.Hit> hits = index.search("taco", 10);
+
+		assertEquals("restaurant", hits.get(0).type());
+		assertEquals("Taco Town", hits.get(0).restName());
+		assertEquals(1, hits.get(1).itemId());
+	}
+
+	@Test
+	void accentsAndCaseAreFolded() {
+		List<CatalogSearchIndex.Hit> hits = index.search("CAFE", 10);
+
+		assertEquals(1, hits.size());
+		assertEquals("Pho Café", hits.get(0).name());
+	}
+
+	@Test
+	void delistedRestaurantDropsOut() {
+		index.replaceRestaurant("Taco Town", false, List.of());
+
+		assertTrue(index.search("taco", 10).isEmpty());
+		assertTrue(index.search("churros", 10).isEmpty());
+		assertEquals(List.of(3), itemIds(index.search("beef", 10)));
+	}
+
+	@Test
+	void findsOneItemInALargeCatalog() {
+		for (int r = 0; r < 1_000; r++) {
+			String restName = "Kitchen " + r;
+			List<SearchableItem> items = new ArrayList<>(100);
+			for (int i = 0; i < 100; i++) {
+				int itemId = 10_000 + r * 100 + i;
+				items.add(new SearchableItem(restName, itemId, "Dish " + itemId, "House special number " + i, true));
+			}
+			index.replaceRestaurant(restName, true, items);
+		}
+
+		assertEquals(List.of(54_321), itemIds(index.search("dish 54321", 10)));
+		assertEquals(10, index.search("special", 10).size());
+	}
+
+	@Test
+	void menuWrittenDuringARebuildIsReappliedWithoutAnotherFullLoad() {
+		FrontdashRepository repository = mock(FrontdashRepository.class);
+		CatalogSearchIndex racing = new CatalogSearchIndex(repository);
+		when(repository.getListedRestaurantNames()).thenReturn(List.of("Taco Town"));
+		when(repository.getListedMenuItems()).thenAnswer(invocation -> {
+			// The churros are added while the full load is running; the load still sees the old menu
+			racing.refreshRestaurant("Taco Town");
+			return List.of(new SearchableItem("Taco Town", 1, "Carne Asada Taco", null, true));
+		});
+		when(repository.isRestaurantListed("Taco Town")).thenReturn(true);
+		when(repository.getListedMenuItems("Taco Town")).thenReturn(List.of(
+				new SearchableItem("Taco Town", 1, "Carne Asada Taco", null, true),
+				new SearchableItem("Taco Town", 2, "Churros", null, true)));
+
+		racing.rebuild();
+
+		assertEquals(List.of(2), itemIds(racing.search("churros", 10)));
+		verify(repository, times(1)).getListedMenuItems();
+	}
+
+	private static List<Integer> itemIds(List<CatalogSearchIndex.Hit> hits) {
+		return hits.stream().map(CatalogSearchIndex.Hit::itemId).toList();
+	}
+}
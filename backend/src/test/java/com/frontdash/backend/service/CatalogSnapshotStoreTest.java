@@ -0,0 +1,119 @@
+package com.frontdash.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.frontdash.backend.repository.FrontdashRepository;
+import com.frontdash.backend.repository.FrontdashRepository.MenuEntry;
+import com.frontdash.backend.repository.FrontdashRepository.RestaurantListing;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CatalogSnapshotStoreTest {
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void catalogSurvivesARestartWithoutDatabaseReads() {
+		Path file = dir.resolve("catalog.snapshot");
+		List<MenuEntry> menu = List.of(
+				new MenuEntry(1, "Carne Asada Taco", new BigDecimal("3.50"), "Y"),
+				new MenuEntry(2, "Churros", new BigDecimal("4.00"), null));
+		long[] hours = OpenHoursIndex.compile(List.of());
+		hours[3] = 0xF0F0L;
+
+		FrontdashRepository before = mock(FrontdashRepository.class);
+		when(before.getMenuByRestaurant("Taco Town")).thenReturn(menu);
+		when(before.listRestaurants(false, false)).thenReturn(List.of(
+				new RestaurantListing("Taco Town", "Y", "Approved", "N", "Ana", "ana@tacotown.test", "555-0100")));
+		Node first = new Node(before, file);
+		first.menuCache.get("Taco Town", 7);
+		byte[] directoryJson = first.directory.get(false, false).json();
+		first.openHours.preload(Map.of("Taco Town", hours));
+		first.store.write();
+
+		FrontdashRepository after = mock(FrontdashRepository.class);
+		Node second = new Node(after, file);
+		second.store.load();
+
+		assertEquals(menu, second.menuCache.get("Taco Town", 7));
+		assertArrayEquals(directoryJson, second.directory.get(false, false).json());
+		assertArrayEquals(hours, second.openHours.currentBitsets().get("Taco Town"));
+		verify(after, never()).getMenuByRestaurant(anyString());
+		verify(after, never()).listRestaurants(false, false);
+	}
+
+	@Test
+	void preloadedMenuIsNotServedOnceItsVersionMoved() {
+		Path file = dir.resolve("catalog.snapshot");
+		FrontdashRepository before = mock(FrontdashRepository.class);
+		when(before.getMenuByRestaurant("Taco Town")).thenReturn(List.of(new MenuEntry(1, "Churros", new BigDecimal("4.00"), "Y")));
+		Node first = new Node(before, file);
+		first.menuCache.get("Taco Town", 7);
+		first.store.write();
+
+		// Edited (menuVersion 7 -> 8) while the node was down
+		List<MenuEntry> edited = List.of(new MenuEntry(1, "Churros", new BigDecimal("4.50"), "Y"));
+		FrontdashRepository after = mock(FrontdashRepository.class);
+		when(after.getMenuByRestaurant("Taco Town")).thenReturn(edited);
+		Node second = new Node(after, file);
+		second.store.load();
+
+		assertEquals(edited, second.menuCache.get("Taco Town", 8));
+	}
+
+	@Test
+	void truncatedSnapshotPreloadsNothing() throws IOException {
+		Path file = dir.resolve("catalog.snapshot");
+		FrontdashRepository before = mock(FrontdashRepository.class);
+		when(before.getMenuByRestaurant("Taco Town")).thenReturn(List.of(new MenuEntry(1, "Churros", new BigDecimal("4.00"), "Y")));
+		when(before.listRestaurants(false, false)).thenReturn(List.of(
+				new RestaurantListing("Taco Town", "Y", "Approved", "N", "Ana", "ana@tacotown.test", "555-0100")));
+		Node first = new Node(before, file);
+		first.menuCache.get("Taco Town", 7);
+		first.directory.get(false, false);
+		first.openHours.preload(Map.of("Taco Town", OpenHoursIndex.compile(List.of())));
+		first.store.write();
+		// Cut off inside the hours section, after the directory and menus decoded cleanly
+		byte[] bytes = Files.readAllBytes(file);
+		Files.write(file, Arrays.copyOf(bytes, bytes.length - 16));
+
+		Node second = new Node(mock(FrontdashRepository.class), file);
+		second.store.load();
+
+		assertTrue(second.directory.currentJson().isEmpty());
+		assertTrue(second.menuCache.currentEntries().isEmpty());
+		assertNull(second.openHours.currentBitsets());
+	}
+
+	private static final class Node {
+		final MenuCache menuCache;
+		final RestaurantDirectory directory;
+		final OpenHoursIndex openHours;
+		final CatalogSnapshotStore store;
+
+		Node(FrontdashRepository repository, Path file) {
+			menuCache = new MenuCache(repository, 10, 60_000);
+			directory = new RestaurantDirectory(repository, new ObjectMapper(), 60_000);
+			openHours = new OpenHoursIndex(repository, 60_000);
+			store = new CatalogSnapshotStore(repository, directory, menuCache, openHours, file.toString());
+		}
+	}
+}
@@ -0,0 +1,99 @@
+package com.frontdash.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.frontdash.backend.dto.MenuImportResponse;
+import com.frontdash.backend.repository.FrontdashRepository;
+import com.frontdash.backend.repository.FrontdashRepository.NewMenuItem;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MenuImporterTest {
+
+	private FrontdashRepository repository;
+	private MenuImporter importer;
+
+	@BeforeEach
+	void setUp() {
+		repository = mock(FrontdashRepository.class);
+		when(repository.restaurantExists("Taco Town")).thenReturn(true);
+		importer = new MenuImporter(repository, new ObjectMapper(), mock(PlatformTransactionManager.class), 2);
+	}
+
+	@Test
+	void csvIsWrittenInChunksAndBadRowsAreReported() throws Exception {
+		String csv = "itemName,itemPrice,itemDescription\r\n"
+				+ "Carne Asada Taco,3.50,\"Steak, onion, cilantro\"\r\n"
+				+ "Churros,four,Fried dough\r\n"
+				+ "\"Horchata\",2.25,\"Rice drink\n(seasonal)\"\r\n"
+				+ ",1.00,No name\r\n"
+				+ "\"Agua \"\"Fresca\"\"\",2.00,\r\n";
+
+		MenuImportResponse response = importer.importMenu("Taco Town", MenuImporter.Format.CSV, stream(csv));
+
+		assertEquals(3, response.getImported());
+		assertEquals(2, response.getFailed());
+		assertEquals(3, response.getErrors().get(0).getLine());
+		assertEquals(6, response.getErrors().get(1).getLine());
+
+		@SuppressWarnings("unchecked")
+		ArgumentCaptor<List<NewMenuItem>> chunks = ArgumentCaptor.forClass(List.class);
+		verify(repository, times(2)).createMenuItems(eq("Taco Town"), chunks.capture());
+		List<NewMenuItem> first = chunks.getAllValues().get(0);
+		assertEquals("Steak, onion, cilantro", first.get(0).itemDescription());
+		assertEquals("Rice drink\n(seasonal)", first.get(1).itemDescription());
+		assertEquals("Agua \"Fresca\"", chunks.getAllValues().get(1).get(0).itemName());
+	}
+
+	@Test
+	void ndjsonRowsAreValidatedIndividually() throws Exception {
+		String ndjson = "{\"itemName\":\"Beef Pho\",\"itemPrice\":12.5,\"isAvailable\":\"n\"}\n"
+				+ "\n"
+				+ "not json\n"
+				+ "{\"itemName\":\"Spring Rolls\",\"itemPrice\":\"6.999\"}\n";
+
+		MenuImportResponse response = importer.importMenu("Taco Town", MenuImporter.Format.NDJSON, stream(ndjson));
+
+		assertEquals(1, response.getImported());
+		assertEquals(List.of(3L, 4L), response.getErrors().stream().map(MenuImportResponse.RowError::getLine).toList());
+		verify(repository).createMenuItems("Taco Town",
+				List.of(new NewMenuItem("Beef Pho", null, new BigDecimal("12.50"), "N")));
+	}
+
+	@Test
+	void runawayRecordsAreCutOffAndTheImportCarriesOn() throws Exception {
+		String longText = "x".repeat(MenuImporter.MAX_RECORD_CHARS + 10);
+		String csv = "itemName,itemPrice\n"
+				+ "\"Unterminated," + longText + "\n"
+				+ "Churros,4.00\n";
+		String ndjson = "{\"itemName\":\"" + longText + "\",\"itemPrice\":1}\n"
+				+ "{\"itemName\":\"Beef Pho\",\"itemPrice\":12.5}\n";
+
+		MenuImportResponse fromCsv = importer.importMenu("Taco Town", MenuImporter.Format.CSV, stream(csv));
+		MenuImportResponse fromNdjson = importer.importMenu("Taco Town", MenuImporter.Format.NDJSON, stream(ndjson));
+
+		assertEquals(1, fromCsv.getImported());
+		assertEquals(List.of(2L), fromCsv.getErrors().stream().map(MenuImportResponse.RowError::getLine).toList());
+		assertEquals(1, fromNdjson.getImported());
+		assertEquals(List.of(1L), fromNdjson.getErrors().stream().map(MenuImportResponse.RowError::getLine).toList());
+		verify(repository).createMenuItems("Taco Town",
+				List.of(new NewMenuItem("Churros", null, new BigDecimal("4.00"), "Y")));
+	}
+
+	private static ByteArrayInputStream stream(String text) {
+		return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,108 @@
+package com.frontdash.backend.service;
+
+import com.frontdash.backend.repository.FrontdashRepository;
+import com.frontdash.backend.repository.FrontdashRepository.RestaurantHours;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OpenHoursIndexTest {
+
+	// 2025-06-02 is a Monday
+	private static final LocalDateTime MONDAY = LocalDateTime.of(2025, 6, 2, 0, 0);
+
+	@Test
+	void sameDaySpanIsHalfOpen() {
+		long[] bits = OpenHoursIndex.compile(List.of(hours("Mon", "09:00", "17:00", false)));
+
+		assertFalse(open(bits, MONDAY.withHour(8).withMinute(59)));
+		assertTrue(open(bits, MONDAY.withHour(9)));
+		assertTrue(open(bits, MONDAY.withHour(16).withMinute(59)));
+		assertFalse(open(bits, MONDAY.withHour(17)));
+		assertFalse(open(bits, MONDAY.plusDays(1).withHour(10)));
+	}
+
+	@Test
+	void overnightSpanRunsIntoTheNextDay() {
+		long[] bits = OpenHoursIndex.compile(List.of(hours("Fri", "18:00", "02:00", false)));
+		LocalDateTime friday = MONDAY.plusDays(4);
+
+		assertTrue(open(bits, friday.withHour(23).withMinute(30)));
+		assertTrue(open(bits, friday.plusDays(1).withHour(1).withMinute(59)));
+		assertFalse(open(bits, friday.plusDays(1).withHour(2)));
+		assertFalse(open(bits, friday.withHour(3)));
+	}
+
+	@Test
+	void sundayNightWrapsToMondayMorning() {
+		long[] bits = OpenHoursIndex.compile(List.of(hours("Sun", "20:00", "01:00", false)));
+
+		assertTrue(open(bits, MONDAY.plusDays(6).withHour(21)));
+		assertTrue(open(bits, MONDAY.withHour(0).withMinute(30)));
+		assertFalse(open(bits, MONDAY.withHour(1)));
+	}
+
+	@Test
+	void midnightCloseMeansEndOfDay() {
+		long[] bits = OpenHoursIndex.compile(List.of(hours("Mon", "11:00", "00:00", false)));
+
+		assertTrue(open(bits, MONDAY.withHour(23).withMinute(59)));
+		assertFalse(open(bits, MONDAY.plusDays(1)));
+	}
+
+	@Test
+	void closedDaysAreSkipped() {
+		long[] bits = OpenHoursIndex.compile(List.of(
+				hours("Mon", "09:00", "17:00", true),
+				hours("Tue", "09:00", "17:00", false)));
+
+		assertFalse(open(bits, MONDAY.withHour(12)));
+		assertTrue(open(bits, MONDAY.plusDays(1).withHour(12)));
+	}
+
+	@Test
+	void loadedIndexAnswersWithoutAQueryUntilItExpires() {
+		FrontdashRepository repository = repositoryWhoseHoursChangeAfterTheFirstLoad();
+		OpenHoursIndex index = new OpenHoursIndex(repository, 60_000);
+
+		assertEquals(List.of("Taco Town"), index.openAt(MONDAY.withHour(12)));
+		assertEquals(List.of("Taco Town"), index.openAt(MONDAY.withHour(12)));
+		verify(repository, times(1)).getListedRestaurantHours();
+	}
+
+	@Test
+	void hoursEditedThroughAnotherNodeShowUpOnceTheIndexExpires() {
+		OpenHoursIndex index = new OpenHoursIndex(repositoryWhoseHoursChangeAfterTheFirstLoad(), 0);
+
+		assertEquals(List.of("Taco Town"), index.openAt(MONDAY.withHour(12)));
+		assertEquals(List.of(), index.openAt(MONDAY.withHour(12)));
+		assertEquals(List.of("Taco Town"), index.openAt(MONDAY.withHour(19)));
+	}
+
+	// Taco Town's Monday hours move from 09-17 to 18-23 through another node; this one never calls refresh()
+	private static FrontdashRepository repositoryWhoseHoursChangeAfterTheFirstLoad() {
+		FrontdashRepository repository = mock(FrontdashRepository.class);
+		when(repository.getListedRestaurantHours()).thenReturn(
+				List.of(new RestaurantHours("Taco Town", "Mon", LocalTime.of(9, 0), LocalTime.of(17, 0), false)),
+				List.of(new RestaurantHours("Taco Town", "Mon", LocalTime.of(18, 0), LocalTime.of(23, 0), false)));
+		return repository;
+	}
+
+	private static boolean open(long[] bits, LocalDateTime at) {
+		return OpenHoursIndex.isSet(bits, OpenHoursIndex.minuteOfWeek(at));
+	}
+
+	private static RestaurantHours hours(String day, String open, String close, boolean closed) {
+		return new RestaurantHours("Test Kitchen", day, LocalTime.parse(open), LocalTime.parse(close), closed);
+	}
+}
@@ -0,0 +1,100 @@
+package com.frontdash.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.frontdash.backend.repository.FrontdashRepository;
+import com.frontdash.backend.repository.FrontdashRepository.ExportedOrder;
+import com.frontdash.backend.repository.FrontdashRepository.ExportedOrderItem;
+import com.frontdash.backend.repository.FrontdashRepository.OrderExportSink;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class OrderExporterTest {
+
+	private OrderExporter exporter;
+
+	@BeforeEach
+	void setUp() {
+		FrontdashRepository repository = mock(FrontdashRepository.class);
+		doAnswer(invocation -> {
+			OrderExportSink sink = invocation.getArgument(2);
+			sink.order(order(7, "Taco Town"));
+			sink.item(new ExportedOrderItem(7, 1, "Carne Asada Taco", new BigDecimal("3.50"), 2, new BigDecimal("7.00")));
+			sink.item(new ExportedOrderItem(7, 2, "Horchata, large", new BigDecimal("2.25"), 1, new BigDecimal("2.25")));
+			sink.order(order(8, "Pho \"House\""));
+			return null;
+		}).when(repository).streamOrdersWithItems(any(), any(), any());
+		exporter = new OrderExporter(repository, new ObjectMapper(), 1);
+	}
+
+	@Test
+	void csvWritesOneLinePerItemAndKeepsItemlessOrders() throws Exception {
+		String csv = export(OrderExporter.Format.CSV);
+
+		String[] lines = csv.split("\r\n");
+		assertEquals(4, lines.length);
+		assertEquals("7,Taco Town,,In Progress,2025-11-02,18:30,,,9.25,0.00,1.00,10.25,1,Carne Asada Taco,3.50,2,7.00", lines[1]);
+		assertEquals("7,Taco Town,,In Progress,2025-11-02,18:30,,,9.25,0.00,1.00,10.25,2,\"Horchata, large\",2.25,1,2.25", lines[2]);
+		assertEquals("8,\"Pho \"\"House\"\"\",,In Progress,2025-11-02,18:30,,,9.25,0.00,1.00,10.25,,,,,", lines[3]);
+	}
+
+	@Test
+	void ndjsonWritesOneOrderPerLineWithItsItems() throws Exception {
+		String ndjson = export(OrderExporter.Format.NDJSON);
+
+		String[] lines = ndjson.split("\n");
+		assertEquals(2, lines.length);
+		ObjectMapper mapper = new ObjectMapper();
+		assertEquals(2, mapper.readTree(lines[0]).get("items").size());
+		assertEquals("Horchata, large", mapper.readTree(lines[0]).get("items").get(1).get("itemName").asText());
+		assertEquals(0, mapper.readTree(lines[1]).get("items").size());
+		assertEquals("2025-11-02", mapper.readTree(lines[1]).get("orderDate").asText());
+	}
+
+	@Test
+	void concurrentExportsBeyondTheLimitAreRefused() throws Exception {
+		FrontdashRepository repository = mock(FrontdashRepository.class);
+		OrderExporter limited = new OrderExporter(repository, new ObjectMapper(), 1);
+		OrderExporter.Export queued = limited.open(OrderExporter.Format.CSV, null, null);
+		doAnswer(invocation -> {
+			// While this export streams, new ones are refused at open and at write time
+			assertThrows(ExportBusyException.class, () -> limited.open(OrderExporter.Format.CSV, null, null));
+			assertThrows(ExportBusyException.class, () -> queued.writeTo(new ByteArrayOutputStream()));
+			return null;
+		}).when(repository).streamOrdersWithItems(any(), any(), any());
+
+		limited.open(OrderExporter.Format.CSV, null, null).writeTo(new ByteArrayOutputStream());
+
+		limited.open(OrderExporter.Format.CSV, null, null).writeTo(new ByteArrayOutputStream());
+	}
+
+	@Test
+	void openedExportsThatNeverStreamHoldNoSlot() throws Exception {
+		exporter.open(OrderExporter.Format.CSV, null, null);
+		exporter.open(OrderExporter.Format.NDJSON, null, null);
+
+		assertEquals(4, export(OrderExporter.Format.CSV).split("\r\n").length);
+	}
+
+	private String export(OrderExporter.Format format) throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		exporter.open(format, null, null).writeTo(out);
+		return out.toString(StandardCharsets.UTF_8);
+	}
+
+	private static ExportedOrder order(int orderNumber, String restName) {
+		return new ExportedOrder(orderNumber, restName, null, "In Progress", LocalDate.of(2025, 11, 2), LocalTime.of(18, 30),
+				null, null, new BigDecimal("9.25"), new BigDecimal("0.00"), new BigDecimal("1.00"), new BigDecimal("10.25"));
+	}
+}
@@ -0,0 +1,79 @@
+package com.frontdash.backend.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of pricing one cart with {@link PricingEngine} against the double + {@code roundCurrency}
+ * code it replaced in {@code FrontdashService.prepareOrder}. Run {@link #main} and read
+ * {@code gc.alloc.rate.norm} (bytes per priced cart).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PricingEngineBenchmark {
+
+	private final PricingEngine pricing = new PricingEngine();
+
+	// A typical cart: eight lines, menu prices as read from the database (dollars before, cents now)
+	private final double[] prices = {12.50, 7.25, 3.99, 15.00, 2.49, 9.75, 4.50, 11.25};
+	private final long[] priceCents = {1250, 725, 399, 1500, 249, 975, 450, 1125};
+	private final int[] quantities = {2, 1, 3, 1, 4, 2, 1, 1};
+	private final Double tip = 3.50;
+
+	@Benchmark
+	public double legacyDoubleRounding() {
+		double tipAmount = tip == null ? 0.0 : tip;
+		double subtotal = 0.0;
+		double lines = 0.0;
+		for (int i = 0; i < prices.length; i++) {
+			double line = prices[i] * quantities[i];
+			lines += roundCurrency(line);
+			subtotal += line;
+		}
+		double serviceCharge = roundCurrency(subtotal * 0.0825);
+		double grandTotal = roundCurrency(subtotal + serviceCharge + tipAmount);
+		return roundCurrency(subtotal) + roundCurrency(tipAmount) + grandTotal + lines;
+	}
+
+	@Benchmark
+	public long pricingEngineCents() {
+		long tipCents = pricing.tipCents(tip);
+		long subtotalCents = 0;
+		for (int i = 0; i < priceCents.length; i++) {
+			subtotalCents += pricing.lineTotalCents(priceCents[i], quantities[i]);
+		}
+		long serviceChargeCents = pricing.serviceChargeCents(subtotalCents);
+		return pricing.grandTotalCents(subtotalCents, serviceChargeCents, tipCents);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder()
+				.include(PricingEngineBenchmark.class.getSimpleName())
+				.addProfiler(GCProfiler.class)
+				.build()).run();
+	}
+
+	// FrontdashService.roundCurrency before the switch to cents
+	private static double roundCurrency(double amount) {
+		return BigDecimal.valueOf(amount).setScale(2, RoundingMode.HALF_UP).doubleValue();
+	}
+}
@@ -0,0 +1,43 @@
+package com.frontdash.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PricingEngineTest {
+
+	private final PricingEngine pricing = new PricingEngine();
+
+	@Test
+	void serviceChargeRoundsHalfUpToTheCent() {
+		assertEquals(0, pricing.serviceChargeCents(0));
+		assertEquals(206, pricing.serviceChargeCents(2500));   // 25.00 * 8.25% = 2.0625
+		assertEquals(1, pricing.serviceChargeCents(7));        // 0.07 * 8.25% = 0.005775
+		assertEquals(83, pricing.serviceChargeCents(1000));    // 10.00 * 8.25% = 0.825
+	}
+
+	@Test
+	void grandTotalMatchesTheFormerTriggerFormula() {
+		long subtotal = pricing.lineTotalCents(1250, 2) + pricing.lineTotalCents(725, 1);
+		long serviceCharge = pricing.serviceChargeCents(subtotal);
+		long tip = pricing.tipCents(3.5);
+
+		assertEquals(3225, subtotal);
+		assertEquals(266, serviceCharge);
+		assertEquals(3841, pricing.grandTotalCents(subtotal, serviceCharge, tip));
+	}
+
+	@Test
+	void tipRules() {
+		assertEquals(0, pricing.tipCents(null));
+		assertEquals(199, pricing.tipCents(1.99));
+		assertThrows(IllegalArgumentException.class, () -> pricing.tipCents(-1.0));
+		assertThrows(IllegalArgumentException.class, () -> pricing.tipCents(Double.NaN));
+	}
+
+	@Test
+	void rejectsNonPositiveQuantity() {
+		assertThrows(IllegalArgumentException.class, () -> pricing.lineTotalCents(500, 0));
+	}
+}
@@ -0,0 +1,81 @@
+package com.frontdash.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.frontdash.backend.repository.FrontdashRepository;
+import com.frontdash.backend.repository.FrontdashRepository.LocatedRestaurant;
+import com.frontdash.backend.repository.FrontdashRepository.RestaurantListing;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RestaurantDirectoryTest {
+
+	private static final RestaurantListing TACO_TOWN =
+			new RestaurantListing("Taco Town", "Y", "Approved", "N", "Ana", "ana@tacotown.test", "555-0100");
+	private static final RestaurantListing PIZZA_ONLY =
+			new RestaurantListing("Pizza Only", "Y", "Approved", "N", "Russel", "russel@pizzaonly.test", "555-0101");
+
+	private final FrontdashRepository repository = mock(FrontdashRepository.class);
+
+	@Test
+	void heldSnapshotIsServedWithoutAQueryUntilItExpires() {
+		when(repository.listRestaurants(false, false)).thenReturn(List.of(TACO_TOWN), List.of(TACO_TOWN, PIZZA_ONLY));
+		RestaurantDirectory directory = new RestaurantDirectory(repository, new ObjectMapper(), 60_000);
+
+		directory.get(false, false);
+		String json = json(directory.get(false, false));
+
+		assertFalse(json.contains("Pizza Only"));
+		verify(repository, times(1)).listRestaurants(false, false);
+	}
+
+	@Test
+	void approvalMadeThroughAnotherNodeShowsUpOnceTheSnapshotExpires() {
+		// Pizza Only is approved elsewhere between the two reads; this node never calls invalidate()
+		when(repository.listRestaurants(false, false)).thenReturn(List.of(TACO_TOWN), List.of(TACO_TOWN, PIZZA_ONLY));
+		when(repository.listRestaurantsByLocation(false, false, null, null, null)).thenReturn(
+				List.of(new LocatedRestaurant(TACO_TOWN, "02115")),
+				List.of(new LocatedRestaurant(TACO_TOWN, "02115"), new LocatedRestaurant(PIZZA_ONLY, "02115")));
+		RestaurantDirectory directory = new RestaurantDirectory(repository, new ObjectMapper(), 0);
+
+		assertFalse(json(directory.get(false, false)).contains("Pizza Only"));
+		assertFalse(json(directory.get(false, false, null, null, "02115")).contains("Pizza Only"));
+
+		assertTrue(json(directory.get(false, false)).contains("Pizza Only"));
+		assertTrue(json(directory.get(false, false, null, null, "02115")).contains("Pizza Only"));
+		assertEquals(1, directory.currentJson().size());
+	}
+
+	@Test
+	void filteredListingIsGzippedOnceAndOnlyOnRequest() throws IOException {
+		when(repository.listRestaurantsByLocation(false, false, "Boston", null, null)).thenReturn(
+				List.of(new LocatedRestaurant(TACO_TOWN, "02115")));
+		RestaurantDirectory.Snapshot snapshot =
+				new RestaurantDirectory(repository, new ObjectMapper(), 60_000).get(false, false, "Boston", null, null);
+
+		byte[] gzip = snapshot.gzip();
+
+		assertSame(gzip, snapshot.gzip());
+		try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip))) {
+			assertArrayEquals(snapshot.json(), in.readAllBytes());
+		}
+	}
+
+	private static String json(RestaurantDirectory.Snapshot snapshot) {
+		return new String(snapshot.json(), StandardCharsets.UTF_8);
+	}
+}
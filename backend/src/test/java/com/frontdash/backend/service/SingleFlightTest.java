@@ -0,0 +1,75 @@
+package com.frontdash.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SingleFlightTest {
+
+	private final SingleFlight singleFlight = new SingleFlight();
+
+	@Test
+	void concurrentCallersShareOneLoad() throws Exception {
+		CountDownLatch loading = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicInteger loads = new AtomicInteger();
+
+		CompletableFuture<String> leader = CompletableFuture.supplyAsync(() -> singleFlight.run("menu:A", () -> {
+			loads.incrementAndGet();
+			loading.countDown();
+			await(release);
+			return "rows";
+		}));
+		assertEquals(true, loading.await(5, TimeUnit.SECONDS));
+		CompletableFuture<String> follower = CompletableFuture.supplyAsync(() -> singleFlight.run("menu:A", () -> {
+			loads.incrementAndGet();
+			return "second load";
+		}));
+		while (coalesced("menu:A") == 0) {
+			Thread.onSpinWait();
+		}
+		release.countDown();
+
+		assertEquals("rows", leader.get(5, TimeUnit.SECONDS));
+		assertEquals("rows", follower.get(5, TimeUnit.SECONDS));
+		assertEquals(1, loads.get());
+	}
+
+	@Test
+	void differentVersionsDoNotShare() {
+		String first = singleFlight.run("hours:A", 1, () -> singleFlight.run("hours:A", 2, () -> "v2"));
+
+		assertEquals("v2", first);
+		assertEquals(0, coalesced("hours:A"));
+	}
+
+	@Test
+	void nothingIsCachedAfterAFailure() {
+		assertThrows(IllegalStateException.class, () -> singleFlight.run("orders", () -> {
+			throw new IllegalStateException("down");
+		}));
+
+		assertEquals("ok", singleFlight.run("orders", () -> "ok"));
+	}
+
+	private long coalesced(String key) {
+		return singleFlight.stats().stream()
+				.filter(row -> key.equals(row.get("key")))
+				.mapToLong(row -> (Long) row.get("coalesced"))
+				.findFirst().orElse(0L);
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -14,7 +14,11 @@ CREATE TABLE Address (
   streetAddress2  VARCHAR(100),
   city            VARCHAR(50),
   state           VARCHAR(50),
-  zip             VARCHAR(10)
+  zip             VARCHAR(10),
+  addressHash     CHAR(64),
+  UNIQUE KEY uq_address_hash (addressHash),
+  KEY idx_address_zip (zip),
+  KEY idx_address_city_state (city, state)
 ) ENGINE=InnoDB;
 
 CREATE TABLE Restaurant (
@@ -27,6 +31,9 @@ CREATE TABLE Restaurant (
   isActive              ENUM('Y','N') DEFAULT 'Y',
   approvalByAdminStatus ENUM('Approved','Pending','Rejected') DEFAULT 'Pending',
   pendingWithdraw       ENUM('Y','N') DEFAULT 'N',
+  kitchenCapacity       INT,
+  menuVersion           BIGINT NOT NULL DEFAULT 0,
+  hoursVersion          BIGINT NOT NULL DEFAULT 0,
   FOREIGN KEY (addressID) REFERENCES Address(addressID)
 ) ENGINE=InnoDB;
 
@@ -91,37 +98,24 @@ CREATE TABLE Orders (
   deliveryDate    DATE,
   deliveryTime    TIME,
   FOREIGN KEY (restName) REFERENCES Restaurant(restName),
-  FOREIGN KEY (driverName) REFERENCES Driver(driverName)
+  FOREIGN KEY (driverName) REFERENCES Driver(driverName),
+  INDEX idx_orders_status_rest_number (orderStatus, restName, orderNumber),
+  INDEX idx_orders_status_driver_number (orderStatus, driverName, orderNumber),
+  INDEX idx_orders_status_number (orderStatus, orderNumber),
+  INDEX idx_orders_rest_number (restName, orderNumber),
+  INDEX idx_orders_driver_number (driverName, orderNumber),
+  INDEX idx_orders_date_number (orderDate, orderNumber)
 ) ENGINE=InnoDB;
 
-DELIMITER $$
-
-CREATE TRIGGER before_orders_insert
-BEFORE INSERT ON Orders
-FOR EACH ROW
-BEGIN
-  SET NEW.serviceCharge = ROUND(NEW.subtotalAmount * 0.0825, 2);
-  SET NEW.grandTotal = ROUND(NEW.subtotalAmount + NEW.serviceCharge + IFNULL(NEW.tipAmount,0), 2);
-END$$
-
-CREATE TRIGGER before_orders_update
-BEFORE UPDATE ON Orders
-FOR EACH ROW
-BEGIN
-  SET NEW.serviceCharge = ROUND(NEW.subtotalAmount * 0.0825, 2);
-  SET NEW.grandTotal = ROUND(NEW.subtotalAmount + NEW.serviceCharge + IFNULL(NEW.tipAmount,0), 2);
-END$$
-
-DELIMITER ;
-
 CREATE TABLE OrderToItems (
   orderNumber   INT,
   itemID        INT,
+  itemName      VARCHAR(100),
+  itemPrice     DECIMAL(8,2),
   quantity      INT DEFAULT 1,
   lineSubtotal  DECIMAL(8,2),
   PRIMARY KEY (orderNumber, itemID),
-  FOREIGN KEY (orderNumber) REFERENCES Orders(orderNumber),
-  FOREIGN KEY (itemID) REFERENCES MenuItems(itemID)
+  FOREIGN KEY (orderNumber) REFERENCES Orders(orderNumber)
 ) ENGINE=InnoDB;
 
 CREATE TABLE OrderDeliveryAddress (
@@ -147,7 +141,11 @@ CREATE TABLE Address (
   streetAddress2  VARCHAR(100),
   city            VARCHAR(50),
   state           VARCHAR(50),
-  zip             VARCHAR(10)
+  zip             VARCHAR(10),
+  addressHash     CHAR(64),
+  UNIQUE KEY uq_address_hash (addressHash),
+  KEY idx_address_zip (zip),
+  KEY idx_address_city_state (city, state)
 ) ENGINE=InnoDB;
 
 CREATE TABLE Restaurant (
@@ -160,6 +158,9 @@ CREATE TABLE Restaurant (
   isActive              ENUM('Y','N') DEFAULT 'Y',
   approvalByAdminStatus ENUM('Approved','Pending','Rejected') DEFAULT 'Pending',
   pendingWithdraw       ENUM('Y','N') DEFAULT 'N',
+  kitchenCapacity       INT,
+  menuVersion           BIGINT NOT NULL DEFAULT 0,
+  hoursVersion          BIGINT NOT NULL DEFAULT 0,
   FOREIGN KEY (addressID) REFERENCES Address(addressID)
 ) ENGINE=InnoDB;
 
@@ -224,37 +225,24 @@ CREATE TABLE Orders (
   deliveryDate    DATE,
   deliveryTime    TIME,
   FOREIGN KEY (restName) REFERENCES Restaurant(restName),
-  FOREIGN KEY (driverName) REFERENCES Driver(driverName)
+  FOREIGN KEY (driverName) REFERENCES Driver(driverName),
+  INDEX idx_orders_status_rest_number (orderStatus, restName, orderNumber),
+  INDEX idx_orders_status_driver_number (orderStatus, driverName, orderNumber),
+  INDEX idx_orders_status_number (orderStatus, orderNumber),
+  INDEX idx_orders_rest_number (restName, orderNumber),
+  INDEX idx_orders_driver_number (driverName, orderNumber),
+  INDEX idx_orders_date_number (orderDate, orderNumber)
 ) ENGINE=InnoDB;
 
-DELIMITER $$
-
-CREATE TRIGGER before_orders_insert
-BEFORE INSERT ON Orders
-FOR EACH ROW
-BEGIN
-  SET NEW.serviceCharge = ROUND(NEW.subtotalAmount * 0.0825, 2);
-  SET NEW.grandTotal = ROUND(NEW.subtotalAmount + NEW.serviceCharge + IFNULL(NEW.tipAmount,0), 2);
-END$$
-
-CREATE TRIGGER before_orders_update
-BEFORE UPDATE ON Orders
-FOR EACH ROW
-BEGIN
-  SET NEW.serviceCharge = ROUND(NEW.subtotalAmount * 0.0825, 2);
-  SET NEW.grandTotal = ROUND(NEW.subtotalAmount + NEW.serviceCharge + IFNULL(NEW.tipAmount,0), 2);
-END$$
-
-DELIMITER ;
-
 CREATE TABLE OrderToItems (
   orderNumber   INT,
   itemID        INT,
+  itemName      VARCHAR(100),
+  itemPrice     DECIMAL(8,2),
   quantity      INT DEFAULT 1,
   lineSubtotal  DECIMAL(8,2),
   PRIMARY KEY (orderNumber, itemID),
-  FOREIGN KEY (orderNumber) REFERENCES Orders(orderNumber),
-  FOREIGN KEY (itemID) REFERENCES MenuItems(itemID)
+  FOREIGN KEY (orderNumber) REFERENCES Orders(orderNumber)
 ) ENGINE=InnoDB;
 
 CREATE TABLE OrderDeliveryAddress (
@@ -264,4 +252,23 @@ CREATE TABLE OrderDeliveryAddress (
   contactPhone VARCHAR(20),
   FOREIGN KEY (orderNumber) REFERENCES Orders(orderNumber),
   FOREIGN KEY (addressID) REFERENCES Address(addressID)
-) ENGINE=InnoDB;
\ No newline at end of file
+) ENGINE=InnoDB;
+
+CREATE TABLE OrderNumberSequence (
+  seqName    VARCHAR(50) PRIMARY KEY,
+  nextValue  INT NOT NULL
+) ENGINE=InnoDB;
+
+INSERT INTO OrderNumberSequence(seqName, nextValue) VALUES ('Orders', 1);
+
+CREATE TABLE OrderIdempotency (
+  idempotencyKey  VARCHAR(100) PRIMARY KEY,
+  orderNumber     INT NOT NULL,
+  subtotalAmount  DECIMAL(8,2),
+  serviceCharge   DECIMAL(8,2),
+  tipAmount       DECIMAL(8,2),
+  grandTotal      DECIMAL(8,2),
+  createdAt       TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  INDEX idx_order_idempotency_created (createdAt),
+  FOREIGN KEY (orderNumber) REFERENCES Orders(orderNumber)
+) ENGINE=InnoDB;
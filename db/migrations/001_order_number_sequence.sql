@@ -0,0 +1,12 @@
+USE frontdash;
+
+-- Order numbers are handed out in blocks from this row instead of Orders AUTO_INCREMENT
+CREATE TABLE IF NOT EXISTS OrderNumberSequence (
+  seqName    VARCHAR(50) PRIMARY KEY,
+  nextValue  INT NOT NULL
+) ENGINE=InnoDB;
+
+-- Start above every existing order (safe to re-run)
+INSERT INTO OrderNumberSequence(seqName, nextValue)
+SELECT 'Orders', COALESCE(MAX(orderNumber), 0) + 1 FROM Orders
+ON DUPLICATE KEY UPDATE nextValue = GREATEST(nextValue, (SELECT COALESCE(MAX(orderNumber), 0) + 1 FROM Orders));
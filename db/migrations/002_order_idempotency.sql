@@ -0,0 +1,13 @@
+USE frontdash;
+
+-- Remembers which order each Idempotency-Key produced, so client retries never create a second order
+CREATE TABLE IF NOT EXISTS OrderIdempotency (
+  idempotencyKey  VARCHAR(100) PRIMARY KEY,
+  orderNumber     INT NOT NULL,
+  subtotalAmount  DECIMAL(8,2),
+  serviceCharge   DECIMAL(8,2),
+  tipAmount       DECIMAL(8,2),
+  grandTotal      DECIMAL(8,2),
+  createdAt       TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  FOREIGN KEY (orderNumber) REFERENCES Orders(orderNumber)
+) ENGINE=InnoDB;
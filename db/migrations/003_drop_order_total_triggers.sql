@@ -0,0 +1,5 @@
+USE frontdash;
+
+-- serviceCharge and grandTotal are now computed once by the backend pricing engine and written with the order
+DROP TRIGGER IF EXISTS before_orders_insert;
+DROP TRIGGER IF EXISTS before_orders_update;
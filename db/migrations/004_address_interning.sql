@@ -0,0 +1,22 @@
+USE frontdash;
+
+-- Content hash of the normalized address; the backend looks rows up by it instead of inserting duplicates
+ALTER TABLE Address ADD COLUMN addressHash CHAR(64);
+
+-- Same normalization as AddressInterner: collapse whitespace, trim, lower-case, join with '|'
+UPDATE Address
+   SET addressHash = SHA2(CONCAT_WS('|',
+         LOWER(TRIM(REGEXP_REPLACE(IFNULL(streetAddress1, ''), '[[:space:]]+', ' '))),
+         LOWER(TRIM(REGEXP_REPLACE(IFNULL(streetAddress2, ''), '[[:space:]]+', ' '))),
+         LOWER(TRIM(REGEXP_REPLACE(IFNULL(city, ''),           '[[:space:]]+', ' '))),
+         LOWER(TRIM(REGEXP_REPLACE(IFNULL(state, ''),          '[[:space:]]+', ' '))),
+         LOWER(TRIM(REGEXP_REPLACE(IFNULL(zip, ''),            '[[:space:]]+', ' ')))), 256);
+
+-- Existing duplicates keep their rows (orders still point at them); only the oldest copy owns the hash
+UPDATE Address a
+  JOIN (SELECT addressHash, MIN(addressID) AS keepID FROM Address GROUP BY addressHash) k
+    ON k.addressHash = a.addressHash
+   SET a.addressHash = NULL
+ WHERE a.addressID <> k.keepID;
+
+ALTER TABLE Address ADD UNIQUE KEY uq_address_hash (addressHash);
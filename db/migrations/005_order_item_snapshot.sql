@@ -0,0 +1,29 @@
+USE frontdash;
+
+-- Order lines keep the name and unit price that were actually charged
+ALTER TABLE OrderToItems
+  ADD COLUMN itemName  VARCHAR(100) AFTER itemID,
+  ADD COLUMN itemPrice DECIMAL(8,2) AFTER itemName;
+
+-- Backfill the unit price from what each line was charged, not from today's menu price;
+-- only the name comes from MenuItems (lines whose item is already gone keep a NULL name)
+UPDATE OrderToItems oi
+  LEFT JOIN MenuItems mi ON mi.itemID = oi.itemID
+   SET oi.itemName  = mi.itemName,
+       oi.itemPrice = CASE WHEN oi.quantity > 0 THEN ROUND(oi.lineSubtotal / oi.quantity, 2) END
+ WHERE oi.itemName IS NULL AND oi.itemPrice IS NULL;
+
+-- Lines no longer read MenuItems, so a menu item can be deleted without touching order history.
+-- The constraint may not carry its auto-generated name, so look it up before dropping it.
+SET @fk_name := (
+  SELECT CONSTRAINT_NAME
+    FROM information_schema.KEY_COLUMN_USAGE
+   WHERE TABLE_SCHEMA = DATABASE()
+     AND TABLE_NAME = 'OrderToItems'
+     AND REFERENCED_TABLE_NAME = 'MenuItems'
+   LIMIT 1);
+SET @drop_fk := IF(@fk_name IS NULL, 'DO 0',
+                   CONCAT('ALTER TABLE OrderToItems DROP FOREIGN KEY `', @fk_name, '`'));
+PREPARE drop_fk FROM @drop_fk;
+EXECUTE drop_fk;
+DEALLOCATE PREPARE drop_fk;
@@ -0,0 +1,7 @@
+USE frontdash;
+
+-- Per-restaurant cap on outstanding 'In Progress' orders (NULL = backend default)
+ALTER TABLE Restaurant ADD COLUMN kitchenCapacity INT AFTER pendingWithdraw;
+
+-- Serves the periodic per-restaurant count of 'In Progress' orders
+CREATE INDEX idx_orders_status_rest ON Orders(orderStatus, restName);
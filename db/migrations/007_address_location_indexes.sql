@@ -0,0 +1,5 @@
+USE frontdash;
+
+-- Location-filtered restaurant listings look restaurants up by their address's zip or city/state
+CREATE INDEX idx_address_zip ON Address(zip);
+CREATE INDEX idx_address_city_state ON Address(city, state);
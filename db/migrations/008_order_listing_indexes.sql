@@ -0,0 +1,9 @@
+USE frontdash;
+
+-- Keyset-paginated order listing: each filter column is followed by orderNumber so a page is an
+-- index range read in orderNumber order, however many orders exist. The new restName/driverName
+-- indexes take over from the implicit foreign-key indexes, which MySQL then drops.
+CREATE INDEX idx_orders_status_number ON Orders(orderStatus, orderNumber);
+CREATE INDEX idx_orders_rest_number ON Orders(restName, orderNumber);
+CREATE INDEX idx_orders_driver_number ON Orders(driverName, orderNumber);
+CREATE INDEX idx_orders_date_number ON Orders(orderDate, orderNumber);
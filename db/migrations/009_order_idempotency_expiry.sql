@@ -0,0 +1,4 @@
+USE frontdash;
+
+-- Idempotency keys are purged once they outlive the replay window; the purge scans by age
+CREATE INDEX idx_order_idempotency_created ON OrderIdempotency(createdAt);
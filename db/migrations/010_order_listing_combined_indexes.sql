@@ -0,0 +1,7 @@
+USE frontdash;
+
+-- status+restName and status+driverName listings page by orderNumber too; the (orderStatus, restName)
+-- index is widened rather than duplicated, since its prefix still serves the kitchen capacity count
+CREATE INDEX idx_orders_status_rest_number ON Orders(orderStatus, restName, orderNumber);
+CREATE INDEX idx_orders_status_driver_number ON Orders(orderStatus, driverName, orderNumber);
+DROP INDEX idx_orders_status_rest ON Orders;
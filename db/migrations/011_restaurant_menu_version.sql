@@ -0,0 +1,5 @@
+USE frontdash;
+
+-- Bumped in the same transaction as every menu write; orders compare it against the version their cached
+-- prices were read at, instead of re-reading each ordered item
+ALTER TABLE Restaurant ADD COLUMN menuVersion BIGINT NOT NULL DEFAULT 0 AFTER kitchenCapacity;
@@ -0,0 +1,5 @@
+USE frontdash;
+
+-- Bumped in the same transaction as every hours write; the /api/restaurant/hours ETag is built from it,
+-- as the menu ETag is from menuVersion, so an edit made through any node retires both
+ALTER TABLE Restaurant ADD COLUMN hoursVersion BIGINT NOT NULL DEFAULT 0 AFTER menuVersion;
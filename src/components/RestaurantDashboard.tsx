@@ -23,6 +23,9 @@ type OpeningHoursEntry = {
   closed: boolean;
 };
 
+// Orders are loaded a page at a time, newest first; older pages only when asked for
+const ORDER_PAGE_SIZE = 20;
+
 const defaultOpeningHours: OpeningHoursEntry[] = [
   { day: 'Monday', open: '09:00', close: '22:00', closed: false },
   { day: 'Tuesday', open: '09:00', close: '22:00', closed: false },
@@ -33,6 +36,20 @@ const defaultOpeningHours: OpeningHoursEntry[] = [
   { day: 'Sunday', open: '10:00', close: '21:00', closed: false },
 ];
 
+async function loadSummaries(orders: any[]): Promise<Record<number, any>> {
+  const summaryMap: Record<number, any> = {};
+  if (orders.length === 0) return summaryMap;
+  try {
+    const summaries = await api.getOrderSummaries(orders.map((o) => o.orderNumber));
+    for (const [num, summary] of Object.entries(summaries)) {
+      summaryMap[Number(num)] = summary;
+    }
+  } catch {
+    // Orders still render without their summaries
+  }
+  return summaryMap;
+}
+
 export function RestaurantDashboard({ onNavigateToLanding, initialRestaurantName, username }: RestaurantDashboardProps) {
   const [activeTab, setActiveTab] = useState<'overview' | 'menu' | 'hours' | 'settings'>('overview');
   const [menuItems, setMenuItems] = useState<
@@ -62,6 +79,8 @@ export function RestaurantDashboard({ onNavigateToLanding, initialRestaurantName
 
   const [orders, setOrders] = useState<any[]>([]);
   const [orderSummaries, setOrderSummaries] = useState<Record<number, any>>({});
+  const [nextOrderCursor, setNextOrderCursor] = useState<string | null>(null);
+  const [loadingMoreOrders, setLoadingMoreOrders] = useState(false);
 
   const [openingHours, setOpeningHours] = useState<OpeningHoursEntry[]>(defaultOpeningHours);
   const [refreshing, setRefreshing] = useState(false);
@@ -76,29 +95,15 @@ export function RestaurantDashboard({ onNavigateToLanding, initialRestaurantName
     if (!restaurantName) return;
     setRefreshing(true);
     try {
-      const [allOrders, menu, hours] = await Promise.all([
-        api.listOrders(),
+      const [orderPage, menu, hours] = await Promise.all([
+        api.listOrderPage({ restName: restaurantName }, null, ORDER_PAGE_SIZE),
         api.getRestaurantMenu(restaurantName),
         api.getRestaurantHours(restaurantName)
       ]);
 
-      const byRest = (allOrders as any[]).filter((o) => o.restName === restaurantName);
-      setOrders(byRest);
-      const summaries = await Promise.all(
-        byRest.map(async (o) => {
-          try {
-            const summary = await api.getOrderSummary(o.orderNumber);
-            return [o.orderNumber, summary] as const;
-          } catch {
-            return [o.orderNumber, null] as const;
-          }
-        })
-      );
-      const summaryMap: Record<number, any> = {};
-      for (const [num, summary] of summaries) {
-        if (summary) summaryMap[num] = summary;
-      }
-      setOrderSummaries(summaryMap);
+      setOrders(orderPage.orders);
+      setNextOrderCursor(orderPage.nextCursor);
+      setOrderSummaries(await loadSummaries(orderPage.orders));
 
       setMenuItems(
         (menu as any[]).map((m) => ({
@@ -129,14 +134,30 @@ export function RestaurantDashboard({ onNavigateToLanding, initialRestaurantName
     void loadAll();
   }, [loadAll]);
 
+  const loadMoreOrders = async () => {
+    if (!nextOrderCursor) return;
+    setLoadingMoreOrders(true);
+    try {
+      const page = await api.listOrderPage({ restName: restaurantName }, nextOrderCursor, ORDER_PAGE_SIZE);
+      const summaries = await loadSummaries(page.orders);
+      setOrders((prev) => [...prev, ...page.orders]);
+      setOrderSummaries((prev) => ({ ...prev, ...summaries }));
+      setNextOrderCursor(page.nextCursor);
+    } catch (err: any) {
+      toast.error(err?.message || "Failed to load more orders");
+    } finally {
+      setLoadingMoreOrders(false);
+    }
+  };
+
   const summary = useMemo(() => {
     const revenue = orders.reduce((sum, o) => sum + Number(o.grandTotal || 0), 0);
     return {
-      ordersCount: orders.length,
+      ordersCount: nextOrderCursor ? `${orders.length}+` : String(orders.length),
       revenue: revenue.toFixed(2),
-      recent: orders.slice(0, 5)
+      recent: orders
     };
-  }, [orders]);
+  }, [orders, nextOrderCursor]);
   const statusBadgeClass = (status?: string) => {
     const s = (status || "").toLowerCase();
     if (s.includes("delivered")) return "bg-green-100 text-green-800";
@@ -525,7 +546,7 @@ export function RestaurantDashboard({ onNavigateToLanding, initialRestaurantName
                 
                 <Card>
                   <CardHeader className="pb-3">
-                    <CardTitle className="text-sm font-medium">Orders (all)</CardTitle>
+                    <CardTitle className="text-sm font-medium">Orders (loaded)</CardTitle>
                   </CardHeader>
                   <CardContent>
                     <div className="text-2xl font-bold">{summary.ordersCount}</div>
@@ -534,7 +555,7 @@ export function RestaurantDashboard({ onNavigateToLanding, initialRestaurantName
                 
                 <Card>
                   <CardHeader className="pb-3">
-                    <CardTitle className="text-sm font-medium">Revenue (all)</CardTitle>
+                    <CardTitle className="text-sm font-medium">Revenue (loaded)</CardTitle>
                   </CardHeader>
                   <CardContent>
                     <div className="text-2xl font-bold">${summary.revenue}</div>
@@ -571,6 +592,17 @@ export function RestaurantDashboard({ onNavigateToLanding, initialRestaurantName
                       })}
                     </div>
                   )}
+                  {nextOrderCursor && (
+                    <Button
+                      variant="outline"
+                      size="sm"
+                      className="mt-3"
+                      onClick={() => void loadMoreOrders()}
+                      disabled={loadingMoreOrders}
+                    >
+                      {loadingMoreOrders ? "Loading..." : "Load older orders"}
+                    </Button>
+                  )}
                 </CardContent>
               </Card>
             </div>
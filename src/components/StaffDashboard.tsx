@@ -37,8 +37,13 @@ export function StaffDashboard({ onNavigateToLanding, username }: StaffDashboard
   const loadData = useCallback(async () => {
     setRefreshing(true);
     try {
-      const [ord, drv] = await Promise.all([api.listOrders(), api.listDrivers()]);
-      setOrders(ord as OrderSummary[]);
+      // Only open orders matter here, and each status is paged to the end so older ones never drop off
+      const [inProgress, assigned, drv] = await Promise.all([
+        api.listOrders({ status: "In Progress" }),
+        api.listOrders({ status: "AssignedDriver" }),
+        api.listDrivers()
+      ]);
+      setOrders([...inProgress, ...assigned] as OrderSummary[]);
       setDrivers((drv as any[]).map(d => ({ name: d.driverName, status: d.employementStatus })));
     } catch (err: any) {
       toast.error(err?.message || "Failed to load data");
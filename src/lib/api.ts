@@ -20,6 +20,39 @@ async function fetchJson<T>(
   return (await res.json()) as T;
 }
 
+type OrderFilter = { status?: string; restName?: string };
+
+// GET /api/orders is keyset-paginated: X-Next-Cursor names the next page, absent on the last one
+async function fetchOrderPage(
+  filter: OrderFilter,
+  cursor: string | null,
+  limit: number
+): Promise<{ orders: any[]; nextCursor: string | null }> {
+  const params = new URLSearchParams({ limit: String(limit) });
+  if (filter.status) params.set("status", filter.status);
+  if (filter.restName) params.set("restName", filter.restName);
+  if (cursor) params.set("cursor", cursor);
+  const res = await fetch(`${API_BASE}/api/orders?${params.toString()}`, {
+    headers: { "Content-Type": "application/json" },
+  });
+  if (!res.ok) {
+    const text = await res.text();
+    throw new Error(text || `Request failed: ${res.status}`);
+  }
+  return { orders: (await res.json()) as any[], nextCursor: res.headers.get("X-Next-Cursor") };
+}
+
+async function fetchAllOrders(filter: OrderFilter): Promise<any[]> {
+  const orders: any[] = [];
+  let cursor: string | null = null;
+  do {
+    const page = await fetchOrderPage(filter, cursor, 200);
+    orders.push(...page.orders);
+    cursor = page.nextCursor;
+  } while (cursor);
+  return orders;
+}
+
 export const api = {
   health: () => fetchJson<{ status: string }>("/api/health"),
   staffLogin: (username: string, password: string) =>
@@ -136,9 +169,24 @@ export const api = {
       method: "POST",
       body: JSON.stringify({ date, time }),
     }),
-  listOrders: () => fetchJson<any[]>("/api/orders"),
+  // Every matching order, newest first, across as many pages as it takes; only for bounded filters such as a status
+  listOrders: (filter: OrderFilter = {}) => fetchAllOrders(filter),
+  // One page of matching orders, newest first; pass the returned nextCursor to get the next one
+  listOrderPage: (filter: OrderFilter = {}, cursor: string | null = null, limit = 20) =>
+    fetchOrderPage(filter, cursor, limit),
   getOrderSummary: (orderNumber: number) =>
     fetchJson<any>(`/api/orders/${orderNumber}`),
+  // The endpoint takes at most 200 orders per call, so larger lists go out in chunks
+  getOrderSummaries: async (orderNumbers: number[]) => {
+    const summaries: Record<string, any> = {};
+    for (let i = 0; i < orderNumbers.length; i += 200) {
+      Object.assign(summaries, await fetchJson<Record<string, any>>("/api/orders/summaries", {
+        method: "POST",
+        body: JSON.stringify({ orderNumbers: orderNumbers.slice(i, i + 200) }),
+      }));
+    }
+    return summaries;
+  },
 };
 
 export type ApiClient = typeof api;